@@ -0,0 +1,92 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load driver: each client sends its next request as soon as the
+ * previous one returns. Runs as a single-file program on Java 21:
+ *
+ * <pre>java scripts/HttpLoadDriver.java URL CLIENTS SECONDS [BEARER_TOKEN]</pre>
+ *
+ * Prints one line: clients, requests, errors, throughput (req/s), p50, p99 and max (ms).
+ */
+public class HttpLoadDriver {
+    // Latencies are recorded per millisecond up to one minute.
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: java HttpLoadDriver.java URL CLIENTS SECONDS [BEARER_TOKEN]");
+            System.exit(2);
+        }
+        URI uri = URI.create(args[0]);
+        int clients = Integer.parseInt(args[1]);
+        long durationMs = Long.parseLong(args[2]) * 1000;
+        String token = args.length > 3 ? args[3] : null;
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET();
+        if (token != null && !token.isEmpty()) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        HttpRequest request = builder.build();
+
+        LongAdder[] histogram = new LongAdder[MAX_LATENCY_MS + 1];
+        Arrays.setAll(histogram, i -> new LongAdder());
+        LongAdder errors = new LongAdder();
+        AtomicLong maxLatency = new AtomicLong();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long deadline = System.currentTimeMillis() + durationMs;
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            executor.submit(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.increment();
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                    }
+                    long latencyMs = (System.nanoTime() - sent) / 1_000_000;
+                    histogram[(int) Math.min(latencyMs, MAX_LATENCY_MS)].increment();
+                    maxLatency.accumulateAndGet(latencyMs, Math::max);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(durationMs + 60_000, TimeUnit.MILLISECONDS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long total = Arrays.stream(histogram).mapToLong(LongAdder::sum).sum();
+        System.out.printf("clients=%d requests=%d errors=%d throughput=%.1f p50=%d p99=%d max=%d%n",
+                clients, total, errors.sum(), total / elapsedSeconds,
+                percentile(histogram, total, 0.50), percentile(histogram, total, 0.99), maxLatency.get());
+    }
+
+    private static int percentile(LongAdder[] histogram, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int latency = 0; latency < histogram.length; latency++) {
+            seen += histogram[latency].sum();
+            if (seen >= rank && rank > 0) {
+                return latency;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Time from process launch to the first successful POST /api/auth/signin, per startup mode:
+#   jar       plain executable jar
+#   cds-aot   extracted jar with the AppCDS archive and AOT bean definitions (-Pfast-startup)
+#   native    GraalVM native image (-Pnative), only when NATIVE=1
+#
+#   BENCH_USERNAME=alice BENCH_PASSWORD=secret \
+#   CDS_TRAINING_DATASOURCE_URL=jdbc:mysql://localhost:3306/cds_training scripts/bench-startup.sh
+#
+# Needs Java 17+, a reachable database with that user, a separate throwaway database for the
+# CDS training run (CDS_TRAINING_DATASOURCE_USERNAME/PASSWORD default to root and empty), and curl.
+# The median of RUNS launches per mode goes to stdout and to target/bench-startup.txt.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-8080}"
+RUNS="${RUNS:-5}"
+NATIVE="${NATIVE:-0}"
+: "${BENCH_USERNAME:?set BENCH_USERNAME to an existing, approved user}"
+: "${BENCH_PASSWORD:?set BENCH_PASSWORD}"
+: "${CDS_TRAINING_DATASOURCE_URL:?set CDS_TRAINING_DATASOURCE_URL to a throwaway database for the training run}"
+
+APP="AquaTac1-0.0.1-SNAPSHOT"
+LOG="$PWD/target/bench-startup.log"
+RESULTS="$PWD/target/bench-startup.txt"
+BODY="{\"username\":\"$BENCH_USERNAME\",\"password\":\"$BENCH_PASSWORD\"}"
+
+now_ms() { date +%s%3N; }
+
+# Launches the command given as arguments and prints the milliseconds until signin first answers 200.
+time_to_signin() {
+  local start pid status
+  start="$(now_ms)"
+  "$@" --server.port="$PORT" > "$LOG" 2>&1 &
+  pid=$!
+  until status="$(curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' \
+      -d "$BODY" "http://localhost:$PORT/api/auth/signin")" && [ "$status" = "200" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "startup failed, see $LOG" >&2
+      exit 1
+    fi
+    sleep 0.02
+  done
+  echo $(( $(now_ms) - start ))
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+run_mode() {
+  local mode="$1"; shift
+  local times=()
+  for _ in $(seq "$RUNS"); do
+    times+=("$(time_to_signin "$@")")
+  done
+  local median
+  median="$(printf '%s\n' "${times[@]}" | sort -n | sed -n "$(( (RUNS + 1) / 2 ))p")"
+  printf '%-8s %10s  %s\n' "$mode" "$median" "${times[*]}" | tee -a "$RESULTS"
+}
+
+./mvnw -B -q -DskipTests package
+printf '%-8s %10s  %s\n' mode median_ms runs_ms | tee "$RESULTS"
+run_mode jar java -jar "target/$APP.jar"
+
+./mvnw -B -q -Pfast-startup -DskipTests package \
+  -Dcds.training.datasource.url="$CDS_TRAINING_DATASOURCE_URL" \
+  -Dcds.training.datasource.username="${CDS_TRAINING_DATASOURCE_USERNAME:-root}" \
+  -Dcds.training.datasource.password="${CDS_TRAINING_DATASOURCE_PASSWORD:-}"
+(cd target/fast-startup && run_mode cds-aot java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar "$APP.jar")
+
+if [ "$NATIVE" = "1" ]; then
+  ./mvnw -B -q -Pnative -DskipTests native:compile
+  run_mode native target/AquaTac1
+fi
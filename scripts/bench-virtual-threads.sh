@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Compares the default Tomcat thread pool with virtual-thread mode at 1k-10k concurrent
+# clients. Needs Java 21 and a running MySQL with the schema from application.properties.
+#
+#   TOKEN=<admin jwt> scripts/bench-virtual-threads.sh
+#
+# TOKEN is optional; without it the target should be a permitted endpoint. One line per mode
+# and client count goes to stdout and to target/bench-virtual-threads.txt.
+set -euo pipefail
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-8080}"
+TARGET="${TARGET:-/api/admin/users/page?size=20}"
+DURATION="${DURATION:-30}"
+CLIENTS="${CLIENTS:-1000 2500 5000 10000}"
+TOKEN="${TOKEN:-}"
+RESULTS="target/bench-virtual-threads.txt"
+
+# The load driver and the virtual mode both use virtual threads.
+if [ "$(java -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')" -lt 21 ]; then
+  echo "needs Java 21 or later on the PATH" >&2
+  exit 1
+fi
+
+./mvnw -B -q -Pvirtual-threads -DskipTests package
+JAR="$(ls target/*.jar | grep -v plain | head -n 1)"
+
+run_mode() {
+  local mode="$1"; shift
+  java "$@" -jar "$JAR" --server.port="$PORT" > "target/bench-$mode.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null || true' RETURN
+  until curl -s -o /dev/null "http://localhost:$PORT/api/auth/availability?username=warmup"; do sleep 1; done
+
+  # Warm up the JIT and the connection pool before measuring.
+  java scripts/HttpLoadDriver.java "http://localhost:$PORT$TARGET" 200 10 "$TOKEN" > /dev/null
+  for clients in $CLIENTS; do
+    echo "mode=$mode $(java scripts/HttpLoadDriver.java "http://localhost:$PORT$TARGET" "$clients" "$DURATION" "$TOKEN")" | tee -a "$RESULTS"
+  done
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+}
+
+: > "$RESULTS"
+# Both modes share the pool size so the only difference is how requests are scheduled.
+run_mode platform -Dspring.datasource.hikari.maximum-pool-size=30 -Dserver.tomcat.max-connections=20000
+run_mode virtual -Dspring.profiles.active=virtual
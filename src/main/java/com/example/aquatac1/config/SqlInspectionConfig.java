@@ -0,0 +1,79 @@
+package com.example.aquatac1.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.aquatac1.sql.SqlBudgetFilter;
+import com.example.aquatac1.sql.SqlHandlerInterceptor;
+import com.example.aquatac1.sql.SqlInspectingDataSource;
+
+/**
+ * Per-request SQL accounting: the application data source reports statements to the
+ * request's collection, the filter opens it and checks the budget, and the interceptor
+ * names the controller method.
+ */
+@Configuration
+@ImportRuntimeHints(SqlInspectionConfig.JdbcProxyHints.class)
+@ConditionalOnProperty(name = "app.sqlInspectionEnabled", havingValue = "true", matchIfMissing = true)
+public class SqlInspectionConfig implements WebMvcConfigurer {
+    // Only the bean the application actually uses; wrapping pools behind it too would count every statement twice.
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    static BeanPostProcessor sqlInspectingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new SqlInspectingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlBudgetFilter> sqlBudgetFilter(
+            @Value("${app.sqlStatementBudget:10}") int statementBudget,
+            @Value("${app.sqlRepeatedStatementThreshold:3}") int repeatedStatementThreshold) {
+        FilterRegistrationBean<SqlBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlBudgetFilter(statementBudget, repeatedStatementThreshold));
+        // Just inside the concurrency limit, so statements from every other filter (JWT, throttling) are counted.
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlHandlerInterceptor());
+    }
+
+    // The inspecting data source hands out JDK proxies, which a native image must know about at build time.
+    static class JdbcProxyHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.proxies().registerJdkProxy(Connection.class);
+            hints.proxies().registerJdkProxy(Statement.class);
+            hints.proxies().registerJdkProxy(PreparedStatement.class);
+            hints.proxies().registerJdkProxy(CallableStatement.class);
+        }
+    }
+}
@@ -1,75 +1,308 @@
 package com.example.aquatac1.contoller;
 
+import com.example.aquatac1.datasource.ReadYourWritesWindow;
+import com.example.aquatac1.dto.BulkOperationResponse;
+import com.example.aquatac1.dto.BulkUserRequest;
 import com.example.aquatac1.dto.UserInfoResponse;
+import com.example.aquatac1.dto.UserPageResponse;
+import com.example.aquatac1.model.ERole;
 import com.example.aquatac1.model.User;
 import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.security.jwt.TokenRevocationService;
+import com.example.aquatac1.security.jwt.VerifiedTokenCache;
+import com.example.aquatac1.security.services.BoundedPasswordEncoder;
+import com.example.aquatac1.security.services.LoginAttemptThrottle;
+import com.example.aquatac1.security.services.UserDetailsCache;
+import com.example.aquatac1.service.UserBulkService;
+import com.example.aquatac1.service.UserExportService;
+import com.example.aquatac1.service.UserImportJob;
+import com.example.aquatac1.service.UserImportService;
+import com.example.aquatac1.service.UserListVersion;
+import com.example.aquatac1.util.TransactionHooks;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import jakarta.validation.Valid;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/admin")
 @PreAuthorize("hasRole('ADMIN')")
 public class AdminController {
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Browsers keep the listing but revalidate it on every poll.
+    private static final CacheControl LISTING_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    UserExportService userExportService;
+
+    @Autowired
+    UserBulkService userBulkService;
+
+    @Autowired
+    UserImportService userImportService;
+
+    @Autowired
+    BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    LoginAttemptThrottle loginAttemptThrottle;
+
+    @Autowired
+    ReadYourWritesWindow readYourWritesWindow;
+
+    @Autowired
+    UserListVersion userListVersion;
+
     @GetMapping("/dashboard")
     public String adminDashboard() {
         return "Admin Dashboard";
     }
 
     @GetMapping("/users")
-    public ResponseEntity<List<UserInfoResponse>> getAllUsers() {
-        List<UserInfoResponse> users = userRepository.findAll().stream()
-                .map(user -> new UserInfoResponse(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getRoles().stream()
-                                .map(role -> role.getName().name())
-                                .collect(Collectors.toList()),
-                        user.isApproved()))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserInfoResponse>> getAllUsers(
+            ServletWebRequest request) {
+        return conditionalListing(request, () -> UserInfoResponse.fromRows(userRepository.findAllUserRoles()));
     }
 
     @GetMapping("/pending-approvals")
-    public ResponseEntity<List<UserInfoResponse>> getPendingApprovals() {
-        List<UserInfoResponse> pendingUsers = userRepository.findByIsApprovedFalse().stream()
-                .map(user -> new UserInfoResponse(
-                        user.getId(),
-                        user.getUsername(),
-                        user.getEmail(),
-                        user.getRoles().stream()
-                                .map(role -> role.getName().name())
-                                .collect(Collectors.toList()),
-                        user.isApproved()))
-                .collect(Collectors.toList());
+    public ResponseEntity<List<UserInfoResponse>> getPendingApprovals(
+            ServletWebRequest request) {
+        return conditionalListing(request, () -> UserInfoResponse.fromRows(userRepository.findPendingUserRoles()));
+    }
 
-        return ResponseEntity.ok(pendingUsers);
+    @GetMapping("/users/page")
+    public ResponseEntity<UserPageResponse> getUsersPage(@RequestParam(defaultValue = "0") long after,
+                                                         @RequestParam(defaultValue = "50") int size,
+                                                         @RequestParam(required = false) ERole role,
+                                                         @RequestParam(required = false) Boolean approved,
+                                                         ServletWebRequest request) {
+        return conditionalListing(request, () -> findUsersPage(after, size, role, approved));
+    }
+
+    @GetMapping("/pending-approvals/page")
+    public ResponseEntity<UserPageResponse> getPendingApprovalsPage(@RequestParam(defaultValue = "0") long after,
+                                                                    @RequestParam(defaultValue = "50") int size,
+                                                                    @RequestParam(required = false) ERole role,
+                                                                    ServletWebRequest request) {
+        return conditionalListing(request, () -> findUsersPage(after, size, role, false));
+    }
+
+    /**
+     * Answers an unchanged listing with 304 before any query or serialization. The stamp
+     * is taken before the read, so a write that lands during the read only makes the next
+     * poll fetch again.
+     */
+    private <T> ResponseEntity<T> conditionalListing(ServletWebRequest request, Supplier<T> listing) {
+        String eTag = userListVersion.getETag();
+        // Sets the ETag header either way, and the 304 status when If-None-Match matches.
+        if (request.checkNotModified(eTag)) {
+            request.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, LISTING_CACHE_CONTROL.getHeaderValue());
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(LISTING_CACHE_CONTROL).body(userListVersion.read(listing));
+    }
+
+    @GetMapping("/users/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                userExportService.exportNdjson(gzipOut);
+                gzipOut.finish();
+            } else {
+                userExportService.exportNdjson(out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=users.ndjson" + (gzip ? ".gz" : ""))
+                .body(body);
     }
 
     @PostMapping("/approve-user/{userId}")
+    @Transactional
     public ResponseEntity<?> approveUser(@PathVariable Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Error: User not found."));
 
         user.setApproved(true);
         userRepository.save(user);
+        afterUserWrite(user.getUsername());
 
         return ResponseEntity.ok("User approved successfully");
     }
 
+    @PostMapping("/unapprove-user/{userId}")
+    @Transactional
+    public ResponseEntity<?> unapproveUser(@PathVariable Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Error: User not found."));
+
+        user.setApproved(false);
+        userRepository.save(user);
+        tokenRevocationService.revokeUser(user.getUsername());
+        afterUserWrite(user.getUsername());
+
+        return ResponseEntity.ok("User approval revoked successfully");
+    }
+
+    // The revocation row and the delete commit or roll back together.
     @DeleteMapping("/delete-user/{userId}")
+    @Transactional
     public ResponseEntity<?> deleteUser(@PathVariable Long userId) {
-        userRepository.deleteById(userId);
+        userRepository.findById(userId).ifPresent(user -> {
+            tokenRevocationService.revokeUser(user.getUsername());
+            userRepository.delete(user);
+            afterUserWrite(user.getUsername());
+        });
         return ResponseEntity.ok("User deleted successfully");
     }
+
+    // After commit, so a rollback changes nothing and no concurrent load re-caches the old row.
+    private void afterUserWrite(String username) {
+        TransactionHooks.afterCommit(() -> {
+            readYourWritesWindow.recordWrite(username);
+            userDetailsCache.invalidate(username);
+        });
+        userListVersion.advance();
+    }
+
+    @PostMapping("/users/bulk/approve")
+    public ResponseEntity<?> bulkApprove(@Valid @RequestBody BulkUserRequest request) {
+        return bulk(request, userBulkService::approve);
+    }
+
+    @PostMapping("/users/bulk/reject")
+    public ResponseEntity<?> bulkReject(@Valid @RequestBody BulkUserRequest request) {
+        return bulk(request, userBulkService::reject);
+    }
+
+    @PostMapping("/users/bulk/delete")
+    public ResponseEntity<?> bulkDelete(@Valid @RequestBody BulkUserRequest request) {
+        return bulk(request, userBulkService::delete);
+    }
+
+    @PostMapping("/users/bulk/roles")
+    public ResponseEntity<?> bulkAssignRoles(@Valid @RequestBody BulkUserRequest request) {
+        if (request.getRoles() == null || request.getRoles().isEmpty()) {
+            return ResponseEntity.badRequest().body("Error: At least one role is required.");
+        }
+        return bulk(request, ids -> userBulkService.assignRoles(ids, request.getRoles()));
+    }
+
+    // A null id would be a null key in the per-id results, which cannot be written as JSON.
+    private static ResponseEntity<?> bulk(BulkUserRequest request, Function<List<Long>, BulkOperationResponse> operation) {
+        if (request.getUserIds().contains(null)) {
+            return ResponseEntity.badRequest().body("Error: User ids must not be null.");
+        }
+        return ResponseEntity.ok(operation.apply(request.getUserIds()));
+    }
+
+    @PostMapping("/users/import")
+    public ResponseEntity<?> importUsers(@RequestParam("file") MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            return ResponseEntity.badRequest().body("Error: Import file is empty!");
+        }
+
+        try (InputStream csv = file.getInputStream()) {
+            return ResponseEntity.accepted().body(userImportService.submit(csv));
+        }
+    }
+
+    @GetMapping("/users/import/{jobId}")
+    public ResponseEntity<UserImportJob> getImportJob(@PathVariable String jobId) {
+        UserImportJob job = userImportService.getJob(jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+
+    private UserPageResponse findUsersPage(long after, int size, ERole role, Boolean approved) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        List<Long> ids = userRepository.findIdsAfter(after, approved, role, PageRequest.of(0, pageSize));
+        if (ids.isEmpty()) {
+            return new UserPageResponse(List.of(), null);
+        }
+
+        List<UserInfoResponse> users = UserInfoResponse.fromRows(userRepository.findUserRolesByIdIn(ids));
+        Long nextCursor = ids.size() == pageSize ? ids.get(ids.size() - 1) : null;
+        return new UserPageResponse(users, nextCursor);
+    }
+
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> userDetails = new LinkedHashMap<>();
+        userDetails.put("size", userDetailsCache.size());
+        userDetails.put("hits", userDetailsCache.getHitCount());
+        userDetails.put("misses", userDetailsCache.getMissCount());
+        userDetails.put("hitRate", userDetailsCache.getHitRate());
+        userDetails.put("evictions", userDetailsCache.getEvictionCount());
+        userDetails.put("loadFailures", userDetailsCache.getLoadFailureCount());
+        userDetails.put("averageLoadMillis", userDetailsCache.getAverageLoadMillis());
+
+        Map<String, Object> verifiedTokens = new LinkedHashMap<>();
+        verifiedTokens.put("size", verifiedTokenCache.size());
+        verifiedTokens.put("hits", verifiedTokenCache.getHitCount());
+        verifiedTokens.put("misses", verifiedTokenCache.getMissCount());
+        verifiedTokens.put("evictions", verifiedTokenCache.getEvictionCount());
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("userDetails", userDetails);
+        stats.put("verifiedTokens", verifiedTokens);
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/password-hashing-stats")
+    public ResponseEntity<Map<String, Object>> getPasswordHashingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hashes", passwordEncoder.getHashCount());
+        stats.put("rejected", passwordEncoder.getRejectedCount());
+        stats.put("queueDepth", passwordEncoder.getQueueDepth());
+        stats.put("averageHashMillis", passwordEncoder.getAverageHashMillis());
+        stats.put("averageQueueWaitMillis", passwordEncoder.getAverageQueueWaitMillis());
+        return ResponseEntity.ok(stats);
+    }
+
+    @GetMapping("/login-throttle-stats")
+    public ResponseEntity<Map<String, Object>> getLoginThrottleStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rejectedByUsername", loginAttemptThrottle.getRejectedByUsernameCount());
+        stats.put("rejectedByIp", loginAttemptThrottle.getRejectedByIpCount());
+        stats.put("evicted", loginAttemptThrottle.getEvictedCount());
+        stats.put("trackedUsernames", loginAttemptThrottle.getTrackedUsernames());
+        stats.put("trackedIps", loginAttemptThrottle.getTrackedIps());
+        return ResponseEntity.ok(stats);
+    }
 }
\ No newline at end of file
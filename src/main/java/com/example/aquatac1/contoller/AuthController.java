@@ -4,18 +4,28 @@ import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import com.example.aquatac1.datasource.ReadYourWritesWindow;
 import com.example.aquatac1.dto.LoginRequest;
 import com.example.aquatac1.dto.SignupRequest;
 import com.example.aquatac1.dto.UserInfoResponse;
 import com.example.aquatac1.model.ERole;
 import com.example.aquatac1.model.Role;
 import com.example.aquatac1.model.User;
-import com.example.aquatac1.repository.RoleRepository;
 import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.security.jwt.AuthTokenFilter;
 import com.example.aquatac1.security.jwt.JwtUtils;
+import com.example.aquatac1.security.jwt.JwtValidationResult;
+import com.example.aquatac1.security.jwt.TokenRevocationService;
+import com.example.aquatac1.security.services.UserDetailsCache;
+import com.example.aquatac1.security.services.LoginAttemptThrottle;
+import com.example.aquatac1.security.services.RoleRegistry;
 import com.example.aquatac1.security.services.UserDetailsImpl;
+import com.example.aquatac1.service.UserAvailabilityIndex;
+import com.example.aquatac1.service.UserListVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -25,9 +35,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -42,7 +55,7 @@ public class AuthController {
     UserRepository userRepository;
 
     @Autowired
-    RoleRepository roleRepository;
+    RoleRegistry roleRegistry;
 
     @Autowired
     PasswordEncoder encoder;
@@ -50,11 +63,38 @@ public class AuthController {
     @Autowired
     JwtUtils jwtUtils;
 
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    LoginAttemptThrottle loginAttemptThrottle;
+
+    @Autowired
+    UserAvailabilityIndex userAvailabilityIndex;
+
+    @Autowired
+    ReadYourWritesWindow readYourWritesWindow;
+
+    @Autowired
+    UserListVersion userListVersion;
+
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        // Checked before authenticate() so throttled attempts never reach BCrypt. The remote
+        // address is the client's, not the gateway's: see server.forward-headers-strategy.
+        long retryAfterSeconds = loginAttemptThrottle.tryAcquire(loginRequest.getUsername(), request.getRemoteAddr());
+        if (retryAfterSeconds > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                    .body("Error: Too many login attempts, please try again later");
+        }
 
         Authentication authentication = authenticationManager
                 .authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        loginAttemptThrottle.onSuccess(loginRequest.getUsername());
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -75,13 +115,31 @@ public class AuthController {
                         userDetails.isApproved()));
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<?> checkAvailability(@RequestParam(required = false) String username,
+                                               @RequestParam(required = false) String email) {
+        if (username == null && email == null) {
+            return ResponseEntity.badRequest().body("Error: Provide a username or an email to check!");
+        }
+
+        Map<String, Boolean> availability = new LinkedHashMap<>();
+        if (username != null) {
+            availability.put("usernameAvailable", userAvailabilityIndex.isUsernameAvailable(username));
+        }
+        if (email != null) {
+            availability.put("emailAvailable", userAvailabilityIndex.isEmailAvailable(email));
+        }
+        return ResponseEntity.ok(availability);
+    }
+
     @PostMapping("/signup")
     public ResponseEntity<?> registerUser(@Valid @RequestBody SignupRequest signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
+        // Turn known duplicates away before paying for BCrypt. A free name is usually answered by the
+        // Bloom filters without a query; the unique keys stay the final word on the insert below.
+        if (!userAvailabilityIndex.isUsernameAvailable(signUpRequest.getUsername())) {
             return ResponseEntity.badRequest().body("Error: Username is already taken!");
         }
-
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
+        if (!userAvailabilityIndex.isEmailAvailable(signUpRequest.getEmail())) {
             return ResponseEntity.badRequest().body("Error: Email is already in use!");
         }
 
@@ -94,26 +152,18 @@ public class AuthController {
         Set<Role> roles = new HashSet<>();
 
         if (strRoles == null) {
-            Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                    .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-            roles.add(userRole);
+            roles.add(roleRegistry.getRole(ERole.ROLE_USER));
         } else {
             strRoles.forEach(role -> {
                 switch (role) {
                     case "admin":
-                        Role adminRole = roleRepository.findByName(ERole.ROLE_ADMIN)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(adminRole);
+                        roles.add(roleRegistry.getRole(ERole.ROLE_ADMIN));
                         break;
                     case "business_owner":
-                        Role businessOwnerRole = roleRepository.findByName(ERole.ROLE_BUSINESS_OWNER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(businessOwnerRole);
+                        roles.add(roleRegistry.getRole(ERole.ROLE_BUSINESS_OWNER));
                         break;
                     default:
-                        Role userRole = roleRepository.findByName(ERole.ROLE_USER)
-                                .orElseThrow(() -> new RuntimeException("Error: Role is not found."));
-                        roles.add(userRole);
+                        roles.add(roleRegistry.getRole(ERole.ROLE_USER));
                 }
             });
         }
@@ -127,13 +177,45 @@ public class AuthController {
             user.setApproved(true);
         }
 
-        userRepository.save(user);
+        // A single insert; the unique keys on users decide whether the name or email is taken.
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().body(duplicateUserMessage(e, signUpRequest));
+        }
+        readYourWritesWindow.recordWrite(user.getUsername());
+        userDetailsCache.invalidate(user.getUsername());
+        userAvailabilityIndex.add(user.getUsername(), user.getEmail());
+        // Keeps signup at the one insert; the stamp catches up on the next poll.
+        userListVersion.advanceLater();
 
         return ResponseEntity.ok("User registered successfully!");
     }
 
+    private String duplicateUserMessage(DataIntegrityViolationException e, SignupRequest signUpRequest) {
+        String message = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        // The keys declared on User (named so in the schema since Flyway V5).
+        if (message.contains("uk_users_username")) {
+            return "Error: Username is already taken!";
+        }
+        if (message.contains("uk_users_email")) {
+            return "Error: Email is already in use!";
+        }
+        // Any other key name: find out which value clashed. The clashing
+        // row may have been committed moments ago, so ask the primary.
+        if (ReadYourWritesWindow.onPrimary(() -> userRepository.existsByUsername(signUpRequest.getUsername()))) {
+            return "Error: Username is already taken!";
+        }
+        return "Error: Email is already in use!";
+    }
+
     @PostMapping("/signout")
-    public ResponseEntity<?> logoutUser() {
+    public ResponseEntity<?> logoutUser(HttpServletRequest request) {
+        JwtValidationResult token = (JwtValidationResult) request.getAttribute(AuthTokenFilter.VERIFIED_TOKEN_ATTRIBUTE);
+        if (token != null) {
+            tokenRevocationService.revokeToken(token.getClaims());
+        }
+
         ResponseCookie cookie = jwtUtils.getCleanJwtCookie();
         return ResponseEntity.ok().header(HttpHeaders.SET_COOKIE, cookie.toString())
                 .body("You've been signed out!");
@@ -0,0 +1,51 @@
+package com.example.aquatac1.contoller;
+
+import com.example.aquatac1.dto.TokenIntrospectionRequest;
+import com.example.aquatac1.security.jwt.TokenIntrospectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Service-to-service endpoints. Callers are gateways, not users, so they authenticate
+ * with a shared secret instead of a JWT; the endpoints are off while no secret is set.
+ */
+@RestController
+@RequestMapping("/api/internal")
+public class InternalController {
+    public static final String SECRET_HEADER = "X-Internal-Secret";
+
+    @Autowired
+    TokenIntrospectionService tokenIntrospectionService;
+
+    @Value("${app.internalApiSecret:}")
+    private String internalApiSecret;
+
+    @PostMapping("/introspect")
+    public ResponseEntity<?> introspect(@RequestHeader(value = SECRET_HEADER, required = false) String secret,
+                                        @Valid @RequestBody TokenIntrospectionRequest request) {
+        if (!isAuthorized(secret)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Error: Unauthorized");
+        }
+        return ResponseEntity.ok(tokenIntrospectionService.introspect(request.getTokens()));
+    }
+
+    private boolean isAuthorized(String secret) {
+        if (internalApiSecret.isEmpty() || secret == null) {
+            return false;
+        }
+        // Constant-time comparison so the secret cannot be guessed byte by byte from response times.
+        return MessageDigest.isEqual(internalApiSecret.getBytes(StandardCharsets.UTF_8), secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
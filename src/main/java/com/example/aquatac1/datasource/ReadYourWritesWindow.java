@@ -0,0 +1,80 @@
+package com.example.aquatac1.datasource;
+
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers which users were written recently so their reads can skip the replica until
+ * replication has caught up. Write paths call {@link #recordWrite(String)} before
+ * invalidating the user's cache entry; readers wrap the query in
+ * {@link #readOnPrimaryIfRecent(String, Supplier)}. Without a replica configured the
+ * pin has no effect.
+ */
+@Component
+public class ReadYourWritesWindow {
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    @Value("${app.readYourWritesWindowMs:5000}")
+    private long windowMs;
+
+    // username (lower case) -> end of its window
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public void recordWrite(String username) {
+        recentWrites.put(normalize(username), System.currentTimeMillis() + windowMs);
+    }
+
+    public void recordWrites(Collection<String> usernames) {
+        long until = System.currentTimeMillis() + windowMs;
+        usernames.forEach(username -> recentWrites.put(normalize(username), until));
+    }
+
+    public boolean isRecent(String username) {
+        Long until = recentWrites.get(normalize(username));
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    public <T> T readOnPrimaryIfRecent(String username, Supplier<T> read) {
+        return isRecent(username) ? onPrimary(read) : read.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.readYourWritesWindowMs:5000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        recentWrites.values().removeIf(until -> until <= now);
+    }
+
+    /**
+     * Runs the read with every connection obtained on this thread routed to the primary,
+     * read-only transactions included. The transaction must start inside the supplier.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            } else {
+                PINNED_TO_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    // Usernames are compared case-insensitively, like the MySQL unique key.
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.aquatac1.dto;
+
+import java.util.Map;
+
+public class BulkOperationResponse {
+    private int succeeded;
+    // Ids that were not found or not eligible for the operation.
+    private int unchanged;
+    // Outcome per requested user id, e.g. APPROVED or NOT_FOUND.
+    private Map<Long, String> results;
+
+    public BulkOperationResponse(int succeeded, int unchanged, Map<Long, String> results) {
+        this.succeeded = succeeded;
+        this.unchanged = unchanged;
+        this.results = results;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(int unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public Map<Long, String> getResults() {
+        return results;
+    }
+
+    public void setResults(Map<Long, String> results) {
+        this.results = results;
+    }
+}
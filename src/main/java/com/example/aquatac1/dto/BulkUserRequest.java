@@ -0,0 +1,34 @@
+package com.example.aquatac1.dto;
+
+import java.util.List;
+import java.util.Set;
+
+import com.example.aquatac1.model.ERole;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class BulkUserRequest {
+    @NotEmpty
+    @Size(max = 10000)
+    private List<Long> userIds;
+
+    // Only used when assigning roles; replaces each user's current roles.
+    private Set<ERole> roles;
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+
+    public Set<ERole> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(Set<ERole> roles) {
+        this.roles = roles;
+    }
+}
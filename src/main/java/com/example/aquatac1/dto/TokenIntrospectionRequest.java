@@ -0,0 +1,20 @@
+package com.example.aquatac1.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public class TokenIntrospectionRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<String> tokens;
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.aquatac1.dto;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Verdict for one introspected token. Roles and approval status come from the database,
+ * not from the token's claims, so they reflect changes made after the token was issued.
+ */
+public class TokenIntrospectionResult {
+    private boolean active;
+    // Why the token is not active, e.g. EXPIRED, REVOKED or USER_NOT_FOUND; null when active
+    private String reason;
+    private String subject;
+    private List<String> roles;
+    private Boolean approved;
+    private Date issuedAt;
+    private Date expiresAt;
+
+    private TokenIntrospectionResult(boolean active, String reason, String subject, List<String> roles,
+                                     Boolean approved, Date issuedAt, Date expiresAt) {
+        this.active = active;
+        this.reason = reason;
+        this.subject = subject;
+        this.roles = roles;
+        this.approved = approved;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public static TokenIntrospectionResult active(String subject, List<String> roles, boolean approved) {
+        return new TokenIntrospectionResult(true, null, subject, roles, approved, null, null);
+    }
+
+    public static TokenIntrospectionResult inactive(String reason) {
+        return new TokenIntrospectionResult(false, reason, null, null, null, null, null);
+    }
+
+    // Copy for one token of this user; several tokens of the same user share the roles list.
+    public TokenIntrospectionResult withToken(Date issuedAt, Date expiresAt) {
+        return new TokenIntrospectionResult(active, reason, subject, roles, approved, issuedAt, expiresAt);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    public Boolean getApproved() {
+        return approved;
+    }
+
+    public void setApproved(Boolean approved) {
+        this.approved = approved;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt;
+    }
+
+    public void setIssuedAt(Date issuedAt) {
+        this.issuedAt = issuedAt;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Date expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.aquatac1.dto;
+
+/**
+ * {@link UserRoleView} rows that also carry the password hash, for authentication only.
+ */
+public interface UserCredentialsView extends UserRoleView {
+    String getPassword();
+}
@@ -0,0 +1,7 @@
+package com.example.aquatac1.dto;
+
+public interface UserIdentityView {
+    String getUsername();
+
+    String getEmail();
+}
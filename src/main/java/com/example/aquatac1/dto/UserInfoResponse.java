@@ -1,5 +1,6 @@
 package com.example.aquatac1.dto;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class UserInfoResponse {
@@ -17,6 +18,25 @@ public class UserInfoResponse {
         this.isApproved = isApproved;
     }
 
+    /**
+     * Folds rows ordered by user id into one response per user.
+     */
+    public static List<UserInfoResponse> fromRows(List<? extends UserRoleView> rows) {
+        List<UserInfoResponse> users = new ArrayList<>();
+        UserInfoResponse current = null;
+        for (UserRoleView row : rows) {
+            if (current == null || !current.getId().equals(row.getId())) {
+                current = new UserInfoResponse(row.getId(), row.getUsername(), row.getEmail(),
+                        new ArrayList<>(), Boolean.TRUE.equals(row.getApproved()));
+                users.add(current);
+            }
+            if (row.getRole() != null) {
+                current.getRoles().add(row.getRole().name());
+            }
+        }
+        return users;
+    }
+
     public Long getId() {
         return id;
     }
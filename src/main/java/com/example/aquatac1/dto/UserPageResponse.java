@@ -0,0 +1,30 @@
+package com.example.aquatac1.dto;
+
+import java.util.List;
+
+public class UserPageResponse {
+    private List<UserInfoResponse> users;
+    // Pass as "after" to fetch the next page; null on the last page.
+    private Long nextCursor;
+
+    public UserPageResponse(List<UserInfoResponse> users, Long nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserInfoResponse> getUsers() {
+        return users;
+    }
+
+    public void setUsers(List<UserInfoResponse> users) {
+        this.users = users;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.aquatac1.dto;
+
+import com.example.aquatac1.model.ERole;
+
+/**
+ * One user/role pair from a flat users-join-roles query. A user with several roles
+ * spans several consecutive rows; a user without roles has a single row with a null role.
+ */
+public interface UserRoleView {
+    Long getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    Boolean getApproved();
+
+    ERole getRole();
+}
@@ -0,0 +1,9 @@
+package com.example.aquatac1.dto;
+
+public interface UserSummaryView {
+    Long getId();
+
+    String getUsername();
+
+    Boolean getApproved();
+}
@@ -0,0 +1,67 @@
+package com.example.aquatac1.logging;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands request log entries to a single background writer through a bounded queue.
+ * Request threads never block: when the queue is full the entry is dropped and counted.
+ */
+@Component
+public class AsyncRequestLogger {
+    private static final Logger logger = LoggerFactory.getLogger("com.example.aquatac1.requests");
+
+    @Value("${app.requestLogQueueCapacity:10000}")
+    private int queueCapacity;
+
+    private BlockingQueue<RequestLogEntry> queue;
+    private Thread writer;
+    private final LongAdder dropped = new LongAdder();
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        writer = new Thread(this::drain, "request-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.interrupt();
+    }
+
+    public void log(RequestLogEntry entry) {
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                RequestLogEntry entry = queue.take();
+                logger.info(entry.format());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        RequestLogEntry entry;
+        while ((entry = queue.poll()) != null) {
+            logger.info(entry.format());
+        }
+    }
+}
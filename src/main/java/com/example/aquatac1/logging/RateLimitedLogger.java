@@ -0,0 +1,75 @@
+package com.example.aquatac1.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * Wraps a logger so that each message key is written at most {@code maxPerWindow} times
+ * per window. Suppressed occurrences are counted and reported when the next window opens.
+ * Keys must come from a small fixed set (e.g. failure types), never from request data.
+ */
+public class RateLimitedLogger {
+    private final Logger logger;
+    private final long windowMs;
+    private final int maxPerWindow;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public RateLimitedLogger(Logger logger, long windowMs, int maxPerWindow) {
+        this.logger = logger;
+        this.windowMs = windowMs;
+        this.maxPerWindow = maxPerWindow;
+    }
+
+    public void error(String key, String format, Object... args) {
+        if (logger.isErrorEnabled() && admit(key, true)) {
+            logger.error(format, args);
+        }
+    }
+
+    public void warn(String key, String format, Object... args) {
+        if (logger.isWarnEnabled() && admit(key, false)) {
+            logger.warn(format, args);
+        }
+    }
+
+    private boolean admit(String key, boolean error) {
+        long now = System.currentTimeMillis();
+        Window window = windows.computeIfAbsent(key, k -> new Window(now));
+
+        int suppressed = window.rollIfElapsed(now, windowMs, maxPerWindow);
+        if (suppressed > 0) {
+            if (error) {
+                logger.error("Suppressed {} repeated '{}' errors in the last {} ms", suppressed, key, windowMs);
+            } else {
+                logger.warn("Suppressed {} repeated '{}' warnings in the last {} ms", suppressed, key, windowMs);
+            }
+        }
+        return window.count.incrementAndGet() <= maxPerWindow;
+    }
+
+    private static final class Window {
+        private volatile long startMs;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private Window(long startMs) {
+            this.startMs = startMs;
+        }
+
+        // Returns how many messages the finished window suppressed, or 0 if it is still open.
+        private int rollIfElapsed(long now, long windowMs, int maxPerWindow) {
+            if (now - startMs < windowMs) {
+                return 0;
+            }
+            synchronized (this) {
+                if (now - startMs < windowMs) {
+                    return 0;
+                }
+                startMs = now;
+                return Math.max(0, count.getAndSet(0) - maxPerWindow);
+            }
+        }
+    }
+}
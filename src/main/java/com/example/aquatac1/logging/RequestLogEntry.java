@@ -0,0 +1,42 @@
+package com.example.aquatac1.logging;
+
+import java.util.Map;
+
+/**
+ * One sampled request, captured on the request thread and formatted by the log writer.
+ * Header values must already be redacted.
+ */
+public class RequestLogEntry {
+    private final String method;
+    private final String uri;
+    private final int status;
+    private final long durationMs;
+    private final String username;
+    private final String remoteAddr;
+    private final Map<String, String> headers;
+
+    public RequestLogEntry(String method, String uri, int status, long durationMs,
+                           String username, String remoteAddr, Map<String, String> headers) {
+        this.method = method;
+        this.uri = uri;
+        this.status = status;
+        this.durationMs = durationMs;
+        this.username = username;
+        this.remoteAddr = remoteAddr;
+        this.headers = headers;
+    }
+
+    String format() {
+        StringBuilder line = new StringBuilder(128)
+                .append("method=").append(method)
+                .append(" uri=").append(uri)
+                .append(" status=").append(status)
+                .append(" durationMs=").append(durationMs)
+                .append(" user=").append(username != null ? username : "-")
+                .append(" remote=").append(remoteAddr);
+        if (headers != null) {
+            line.append(" headers=").append(headers);
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.aquatac1.logging;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Logs a sample of requests with their outcome and redacted headers. Requests that are
+ * not sampled pass straight through without any capture work.
+ */
+public class RequestLoggingFilter extends OncePerRequestFilter {
+    private static final Set<String> REDACTED_HEADERS = Set.of("authorization", "proxy-authorization", "cookie");
+    private static final String REDACTED = "[REDACTED]";
+
+    @Autowired
+    private AsyncRequestLogger requestLogger;
+
+    @Value("${app.requestLogSampleRate:0.01}")
+    private double sampleRate;
+
+    @Value("${app.requestLogHeaders:false}")
+    private boolean includeHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (sampleRate <= 0 || (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            requestLogger.log(new RequestLogEntry(
+                    request.getMethod(),
+                    request.getRequestURI(),
+                    response.getStatus(),
+                    (System.nanoTime() - start) / 1_000_000,
+                    authentication != null ? authentication.getName() : null,
+                    request.getRemoteAddr(),
+                    includeHeaders ? redactedHeaders(request) : null));
+        }
+    }
+
+    private static Map<String, String> redactedHeaders(HttpServletRequest request) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            headers.put(name, REDACTED_HEADERS.contains(name.toLowerCase()) ? REDACTED : request.getHeader(name));
+        }
+        return headers;
+    }
+}
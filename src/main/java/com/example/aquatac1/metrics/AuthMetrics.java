@@ -0,0 +1,111 @@
+package com.example.aquatac1.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.aquatac1.security.jwt.JwtValidationResult;
+import com.example.aquatac1.security.jwt.VerifiedTokenCache;
+import com.example.aquatac1.security.services.LoginAttemptThrottle;
+import com.example.aquatac1.security.services.UserDetailsCache;
+
+/**
+ * Meters for each stage of authentication, published as {@code auth.*}. Every meter on
+ * the request path is registered up front, so recording is a clock read and an add: no
+ * tag lookup and no allocation per request.
+ */
+@Component
+public class AuthMetrics {
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    LoginAttemptThrottle loginAttemptThrottle;
+
+    // Indexed by failure ordinal; [0] verified from scratch, [1] answered by the verified-token cache
+    private Timer[][] jwtVerifications;
+    private Timer userLookupFound;
+    private Timer userLookupNotFound;
+    private Counter unauthorized;
+
+    @PostConstruct
+    void init() {
+        JwtValidationResult.Failure[] failures = JwtValidationResult.Failure.values();
+        jwtVerifications = new Timer[failures.length][2];
+        for (JwtValidationResult.Failure failure : failures) {
+            jwtVerifications[failure.ordinal()][0] = jwtVerificationTimer(failure, "miss");
+            jwtVerifications[failure.ordinal()][1] = jwtVerificationTimer(failure, "hit");
+        }
+
+        userLookupFound = userLookupTimer("found");
+        userLookupNotFound = userLookupTimer("not_found");
+        unauthorized = Counter.builder("auth.unauthorized")
+                .description("Requests rejected by the authentication entry point")
+                .register(meterRegistry);
+
+        Gauge.builder("auth.jwt.cache.size", verifiedTokenCache, VerifiedTokenCache::size).register(meterRegistry);
+        FunctionCounter.builder("auth.jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::getHitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("auth.jwt.cache.requests", verifiedTokenCache, VerifiedTokenCache::getMissCount)
+                .tag("result", "miss").register(meterRegistry);
+
+        Gauge.builder("auth.user.cache.size", userDetailsCache, UserDetailsCache::size).register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.requests", userDetailsCache, UserDetailsCache::getHitCount)
+                .tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.requests", userDetailsCache, UserDetailsCache::getMissCount)
+                .tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.load.failures", userDetailsCache, UserDetailsCache::getLoadFailureCount)
+                .register(meterRegistry);
+
+        FunctionCounter.builder("auth.login.throttle.rejections", loginAttemptThrottle, LoginAttemptThrottle::getRejectedByUsernameCount)
+                .tag("key", "username").register(meterRegistry);
+        FunctionCounter.builder("auth.login.throttle.rejections", loginAttemptThrottle, LoginAttemptThrottle::getRejectedByIpCount)
+                .tag("key", "ip").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.tracked", loginAttemptThrottle, LoginAttemptThrottle::getTrackedUsernames)
+                .tag("key", "username").register(meterRegistry);
+        Gauge.builder("auth.login.throttle.tracked", loginAttemptThrottle, LoginAttemptThrottle::getTrackedIps)
+                .tag("key", "ip").register(meterRegistry);
+        FunctionCounter.builder("auth.login.throttle.evictions", loginAttemptThrottle, LoginAttemptThrottle::getEvictedCount)
+                .register(meterRegistry);
+    }
+
+    public void recordJwtVerification(JwtValidationResult.Failure outcome, boolean cached, long nanos) {
+        jwtVerifications[outcome.ordinal()][cached ? 1 : 0].record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUserLookup(boolean found, long nanos) {
+        (found ? userLookupFound : userLookupNotFound).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordUnauthorized() {
+        unauthorized.increment();
+    }
+
+    private Timer jwtVerificationTimer(JwtValidationResult.Failure outcome, String cache) {
+        return Timer.builder("auth.jwt.verification")
+                .description("Token verification including the revocation check")
+                .tag("outcome", outcome.name())
+                .tag("cache", cache)
+                .register(meterRegistry);
+    }
+
+    private Timer userLookupTimer(String result) {
+        return Timer.builder("auth.user.lookup")
+                .description("loadUserByUsername, cache hits included")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.aquatac1.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Shared version stamp of a cached listing, bumped by every write that changes it.
+ * Instances poll it, so a write on one instance is seen by all of them.
+ */
+@Entity
+@Table(name = "list_versions")
+public class ListVersion {
+    @Id
+    @Column(length = 30)
+    private String name;
+
+    @Column(nullable = false)
+    private long version;
+
+    public ListVersion() {
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.aquatac1.repository;
+
+import com.example.aquatac1.model.ListVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface ListVersionRepository extends JpaRepository<ListVersion, String> {
+    // Runs in the short transaction UserListVersion opens after the write's commit, so no write holds this row lock.
+    @Modifying
+    @Transactional
+    @Query(value = "insert into list_versions (name, version) values (:name, 1) " +
+            "on duplicate key update version = version + 1", nativeQuery = true)
+    int increment(@Param("name") String name);
+
+    // Not read-only: the stamp must come from the primary, never from a lagging replica.
+    @Query("select v.version from ListVersion v where v.name = :name")
+    Optional<Long> findVersion(@Param("name") String name);
+}
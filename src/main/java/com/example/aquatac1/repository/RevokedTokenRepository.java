@@ -0,0 +1,26 @@
+package com.example.aquatac1.repository;
+
+import com.example.aquatac1.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    List<RevokedToken> findByExpiresAtAfter(Instant now);
+    List<RevokedToken> findByIdGreaterThanOrderByIdAsc(long id);
+
+    @Query("select max(t.id) from RevokedToken t where t.revokedAt < :before")
+    Long findMaxIdRevokedBefore(@Param("before") Instant before);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
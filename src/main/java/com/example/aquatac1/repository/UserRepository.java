@@ -1,19 +1,117 @@
 package com.example.aquatac1.repository;
 
+import com.example.aquatac1.dto.UserCredentialsView;
+import com.example.aquatac1.dto.UserIdentityView;
+import com.example.aquatac1.dto.UserRoleView;
+import com.example.aquatac1.dto.UserSummaryView;
 import com.example.aquatac1.model.ERole;
 import com.example.aquatac1.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+    // Availability checks behind the Bloom filters; read-only so they can be served by a replica.
+    @Transactional(readOnly = true)
     Boolean existsByUsername(String username);
+    @Transactional(readOnly = true)
     Boolean existsByEmail(String email);
     List<User> findByRoles_Name(ERole role);
     List<User> findByIsApprovedFalse();
 
+    // Flat users-join-roles reads: one statement, no managed entities, ordered so rows of a user are adjacent.
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.username as username, u.email as email, u.isApproved as approved, r.name as role " +
+            "from User u left join u.roles r order by u.id")
+    List<UserRoleView> findAllUserRoles();
+
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.username as username, u.email as email, u.isApproved as approved, r.name as role " +
+            "from User u left join u.roles r where u.isApproved = false order by u.id")
+    List<UserRoleView> findPendingUserRoles();
+
+    // Forward-only export read; Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.id as id, u.username as username, u.email as email, u.isApproved as approved, r.name as role " +
+            "from User u left join u.roles r order by u.id")
+    Stream<UserRoleView> streamAllUserRoles();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.username as username, u.email as email from User u")
+    Stream<UserIdentityView> streamAllIdentities();
+
+    // Keyset page of ids: seeks past the cursor on the primary key, so cost does not grow with page depth.
+    @Transactional(readOnly = true)
+    @Query("select u.id from User u where u.id > :afterId " +
+            "and (:approved is null or u.isApproved = :approved) " +
+            "and (:role is null or exists (select 1 from User f join f.roles fr where f.id = u.id and fr.name = :role)) " +
+            "order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, @Param("approved") Boolean approved,
+                            @Param("role") ERole role, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.username as username, u.email as email, u.isApproved as approved, r.name as role " +
+            "from User u left join u.roles r where u.id in :ids order by u.id")
+    List<UserRoleView> findUserRolesByIdIn(@Param("ids") List<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.username as username, u.email as email, u.isApproved as approved, r.name as role " +
+            "from User u left join u.roles r where u.username in :usernames order by u.id")
+    List<UserRoleView> findUserRolesByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.id as id, u.username as username, u.isApproved as approved from User u where u.id in :ids")
+    List<UserSummaryView> findSummariesByIdIn(@Param("ids") List<Long> ids);
+
+    @Query("select u.id as id, u.username as username, u.isApproved as approved from User u where u.username in :usernames")
+    List<UserSummaryView> findSummariesByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Set-based writes for bulk admin operations; callers run them inside their own transaction.
+    @Modifying
+    @Query("update User u set u.isApproved = :approved where u.id in :ids")
+    int updateApprovedByIdIn(@Param("ids") List<Long> ids, @Param("approved") boolean approved);
+
+    @Modifying
+    @Query(value = "delete from user_roles where user_id in (:ids)", nativeQuery = true)
+    int deleteRolesByUserIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
+
+    @Transactional(readOnly = true)
+    @Query("select u.id as id, u.username as username, u.email as email, u.password as password, " +
+            "u.isApproved as approved, r.name as role " +
+            "from User u left join u.roles r where u.username = :username")
+    List<UserCredentialsView> findCredentialsByUsername(@Param("username") String username);
 }
\ No newline at end of file
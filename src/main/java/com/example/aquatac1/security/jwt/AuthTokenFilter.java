@@ -1,7 +1,6 @@
 package com.example.aquatac1.security.jwt;
 
 import java.io.IOException;
-import java.util.Collections;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,49 +17,56 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.aquatac1.logging.RateLimitedLogger;
 import com.example.aquatac1.security.services.UserDetailsServiceImpl;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
+    // Holds the JwtValidationResult of an accepted token for downstream handlers such as signout.
+    public static final String VERIFIED_TOKEN_ATTRIBUTE = AuthTokenFilter.class.getName() + ".VERIFIED_TOKEN";
+
     @Autowired
     private JwtUtils jwtUtils;
     @Autowired
 
     private UserDetailsServiceImpl userDetailsService;
+    @Autowired
+    private TokenIntrospectionService tokenIntrospectionService;
 
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
+    private static final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 60_000, 10);
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
-        System.out.println("==== INCOMING REQUEST ====");
-        System.out.println("Headers:");
-        Collections.list(request.getHeaderNames()).forEach(header ->
-                System.out.println(header + ": " + request.getHeader(header)));
-
         String jwt = parseJwt(request);
-        System.out.println("Extracted JWT: " + jwt);
         try {
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                System.out.println("Authenticating user: " + username);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            JwtValidationResult result = jwt != null ? tokenIntrospectionService.verify(jwt) : null;
+            if (result != null && result.isValid()) {
+                String username = result.getSubject();
+                UserDetails userDetails = null;
+                if (jwtUtils.isStateless()) {
+                    userDetails = jwtUtils.getUserDetailsFromClaims(result.getClaims());
+                }
+                if (userDetails == null) {
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                }
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("User authorities: " + userDetails.getAuthorities());
+                request.setAttribute(VERIFIED_TOKEN_ATTRIBUTE, result);
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
+            // The exception goes last so the stack trace of an unexpected failure is kept.
+            rateLimitedLogger.error("AUTHENTICATION", "Cannot set user authentication: {}", e.getMessage(), e);
         }
 
         filterChain.doFilter(request, response);
     }
 
 
-
-    private String parseJwt(HttpServletRequest request) {
+    String parseJwt(HttpServletRequest request) {
         // 1. First try to get from Authorization header
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
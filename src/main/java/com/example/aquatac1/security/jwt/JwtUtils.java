@@ -1,21 +1,31 @@
 package com.example.aquatac1.security.jwt;
 
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import java.security.Key;
 import java.nio.charset.StandardCharsets;
 
+import com.example.aquatac1.logging.RateLimitedLogger;
+import com.example.aquatac1.security.services.RoleRegistry;
 import com.example.aquatac1.security.services.UserDetailsImpl;
 
 @Component
 public class JwtUtils {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    // Invalid tokens are client input, so a token-spraying client must not be able to flood the log.
+    private static final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 60_000, 10);
 
     @Value("${app.jwtSecret}")
     private String jwtSecret;
@@ -23,12 +33,28 @@ public class JwtUtils {
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
-    private Key getSigningKey() {
+    // When enabled, the filter trusts the signed user claims instead of loading the user per request.
+    @Value("${app.jwtStateless:false}")
+    private boolean jwtStateless;
+
+    private static final String CLAIM_USER_ID = "id";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_APPROVED = "approved";
+
+    // Both are immutable and thread-safe, so they are built once instead of per token.
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         if (keyBytes.length < 64) {
             throw new IllegalArgumentException("The signing key must be at least 512 bits (64 bytes) for HS512.");
         }
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     public ResponseCookie generateJwtCookie(UserDetailsImpl userDetails) {
@@ -40,43 +66,90 @@ public class JwtUtils {
                 .build();
     }
 
-    private String generateJwtToken(UserDetailsImpl userDetails) {
+    String generateJwtToken(UserDetailsImpl userDetails) {
+        List<String> roles = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+
         return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(userDetails.getUsername())
+                .claim(CLAIM_USER_ID, userDetails.getId())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_APPROVED, userDetails.isApproved())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 .compact();
     }
 
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Parses and verifies the token exactly once. Callers should use the returned claims
+     * rather than parsing the token again.
+     */
+    public JwtValidationResult verifyJwtToken(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
-            logger.error("Invalid JWT signature: {}", e.getMessage());
+            return JwtValidationResult.valid(jwtParser.parseClaimsJws(authToken).getBody());
+        } catch (io.jsonwebtoken.security.SecurityException e) {
+            rateLimitedLogger.error("INVALID_SIGNATURE", "Invalid JWT signature: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.INVALID_SIGNATURE);
+        } catch (MalformedJwtException e) {
+            rateLimitedLogger.error("MALFORMED", "Invalid JWT token: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.MALFORMED);
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            rateLimitedLogger.error("EXPIRED", "JWT token is expired: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.EXPIRED);
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            rateLimitedLogger.error("UNSUPPORTED", "JWT token is unsupported: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.UNSUPPORTED);
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            rateLimitedLogger.error("EMPTY", "JWT claims string is empty: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.EMPTY);
+        } catch (JwtException e) {
+            rateLimitedLogger.error("INVALID", "JWT token is invalid: {}", e.getMessage());
+            return JwtValidationResult.invalid(JwtValidationResult.Failure.INVALID);
         }
+    }
 
-        return false;
+    public boolean isStateless() {
+        return jwtStateless;
     }
+
+    /**
+     * Builds the principal from verified claims, or returns null for tokens issued without
+     * the user claims (callers then fall back to loading the user).
+     */
+    public UserDetailsImpl getUserDetailsFromClaims(Claims claims) {
+        Number id = claims.get(CLAIM_USER_ID, Number.class);
+        List<?> roles = claims.get(CLAIM_ROLES, List.class);
+        Boolean approved = claims.get(CLAIM_APPROVED, Boolean.class);
+        if (id == null || roles == null || approved == null) {
+            return null;
+        }
+
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> RoleRegistry.authorityOf(role.toString()))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                id.longValue(),
+                claims.getSubject(),
+                null,
+                null,
+                authorities,
+                approved);
+    }
+
+    public String getUserNameFromJwtToken(String token) {
+        return jwtParser.parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    public boolean validateJwtToken(String authToken) {
+        return verifyJwtToken(authToken).isValid();
+    }
+
      public ResponseCookie getCleanJwtCookie() {
         return ResponseCookie.from("jwt", "")
                 .path("/")
@@ -0,0 +1,59 @@
+package com.example.aquatac1.security.jwt;
+
+import java.util.Date;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Outcome of a single parse-and-verify pass over a JWT. A valid result carries the
+ * verified claims; an invalid one carries the reason verification failed.
+ */
+public class JwtValidationResult {
+    public enum Failure {
+        NONE,
+        INVALID_SIGNATURE,
+        MALFORMED,
+        EXPIRED,
+        UNSUPPORTED,
+        EMPTY,
+        INVALID,
+        // Signature and expiry are fine but the token or its user was revoked server-side
+        REVOKED
+    }
+
+    private final Failure failure;
+    private final Claims claims;
+
+    private JwtValidationResult(Failure failure, Claims claims) {
+        this.failure = failure;
+        this.claims = claims;
+    }
+
+    public static JwtValidationResult valid(Claims claims) {
+        return new JwtValidationResult(Failure.NONE, claims);
+    }
+
+    public static JwtValidationResult invalid(Failure failure) {
+        return new JwtValidationResult(failure, null);
+    }
+
+    public boolean isValid() {
+        return failure == Failure.NONE;
+    }
+
+    public Failure getFailure() {
+        return failure;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getSubject() {
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    public Date getExpiration() {
+        return claims != null ? claims.getExpiration() : null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.aquatac1.security.jwt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.aquatac1.dto.TokenIntrospectionResult;
+import com.example.aquatac1.dto.UserRoleView;
+import com.example.aquatac1.metrics.AuthMetrics;
+import com.example.aquatac1.repository.UserRepository;
+
+/**
+ * Single place where a raw token is turned into a verdict: cached signature
+ * verification followed by the revocation check. Used per request by
+ * {@link AuthTokenFilter} and in batches by the internal introspection endpoint.
+ */
+@Service
+public class TokenIntrospectionService {
+    public static final String USER_NOT_FOUND = "USER_NOT_FOUND";
+
+    @Autowired
+    JwtUtils jwtUtils;
+
+    @Autowired
+    VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    AuthMetrics authMetrics;
+
+    public JwtValidationResult verify(String token) {
+        long start = System.nanoTime();
+        JwtValidationResult result = verifiedTokenCache.get(token);
+        boolean cached = result != null;
+        if (!cached) {
+            result = jwtUtils.verifyJwtToken(token);
+            verifiedTokenCache.put(token, result);
+        }
+        if (result.isValid() && tokenRevocationService.isRevoked(result.getClaims())) {
+            result = JwtValidationResult.invalid(JwtValidationResult.Failure.REVOKED);
+        }
+        authMetrics.recordJwtVerification(result.getFailure(), cached, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Verifies every token, then reads the current roles and approval status of all
+     * distinct subjects with one query. Results are in the order of the input tokens.
+     */
+    public List<TokenIntrospectionResult> introspect(List<String> tokens) {
+        List<JwtValidationResult> verified = new ArrayList<>(tokens.size());
+        Set<String> usernames = new LinkedHashSet<>();
+        for (String token : tokens) {
+            JwtValidationResult result = token != null ? verify(token)
+                    : JwtValidationResult.invalid(JwtValidationResult.Failure.EMPTY);
+            verified.add(result);
+            if (result.isValid() && result.getSubject() != null) {
+                usernames.add(result.getSubject());
+            }
+        }
+
+        Map<String, TokenIntrospectionResult> users = new HashMap<>();
+        if (!usernames.isEmpty()) {
+            for (UserRoleView row : userRepository.findUserRolesByUsernameIn(usernames)) {
+                TokenIntrospectionResult user = users.computeIfAbsent(row.getUsername(), username ->
+                        TokenIntrospectionResult.active(username, new ArrayList<>(), Boolean.TRUE.equals(row.getApproved())));
+                if (row.getRole() != null) {
+                    user.getRoles().add(row.getRole().name());
+                }
+            }
+        }
+
+        List<TokenIntrospectionResult> results = new ArrayList<>(verified.size());
+        for (JwtValidationResult result : verified) {
+            if (!result.isValid()) {
+                results.add(TokenIntrospectionResult.inactive(result.getFailure().name()));
+                continue;
+            }
+            TokenIntrospectionResult user = users.get(result.getSubject());
+            results.add(user != null
+                    ? user.withToken(result.getClaims().getIssuedAt(), result.getExpiration())
+                    : TokenIntrospectionResult.inactive(USER_NOT_FOUND));
+        }
+        return results;
+    }
+}
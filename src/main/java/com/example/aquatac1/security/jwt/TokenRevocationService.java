@@ -0,0 +1,193 @@
+package com.example.aquatac1.security.jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.aquatac1.model.RevokedToken;
+import com.example.aquatac1.repository.RevokedTokenRepository;
+import com.example.aquatac1.util.BloomFilter;
+import com.example.aquatac1.util.TransactionHooks;
+
+import io.jsonwebtoken.Claims;
+
+/**
+ * Server-side revocation of individual tokens (by jti) and of every token issued to a
+ * user before a point in time. Revocations are persisted and mirrored in memory; Bloom
+ * filters answer the common "not revoked" case without a map lookup or allocation. When
+ * called inside a transaction, the row is written with it and the in-memory state changes
+ * only once it commits.
+ *
+ * <p>Other instances' revocations are picked up by id. An id can commit after a higher
+ * one has been read, so a gap below the highest id seen is read again on every sync
+ * until its row shows up or the gap is old enough to be a rollback.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    // No revoking transaction stays uncommitted this long, so an older gap in the ids will not fill.
+    private static final long SYNC_GAP_GRACE_MS = 60000;
+
+    // Bounds the gaps tracked after a jump in the ids (auto_increment_increment, a reseeded table).
+    private static final int MAX_TRACKED_GAPS = 10000;
+
+    @Autowired
+    RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app.jwtExpirationMs}")
+    private int jwtExpirationMs;
+
+    @Value("${app.jwtRevocationBloomBits:1048576}")
+    private int bloomBits;
+
+    @Value("${app.jwtRevocationBloomHashes:5}")
+    private int bloomHashes;
+
+    // jti -> token expiry, username -> tokens issued before this instant are revoked
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedUsersBefore = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter tokenIdFilter;
+    private volatile BloomFilter usernameFilter;
+
+    // Every id up to this one has been read or given up on; gap id -> when it was first seen.
+    // Guarded by syncLock, not this: apply() must not wait for a sync's query.
+    private final Object syncLock = new Object();
+    private long syncedUpToId;
+    private final NavigableMap<Long, Long> missingIds = new TreeMap<>();
+
+    @PostConstruct
+    void init() {
+        Instant now = Instant.now();
+        rebuildFilters();
+        apply(revokedTokenRepository.findByExpiresAtAfter(now));
+        // Rows from the grace period may still have neighbours in flight; read them through the sync.
+        syncedUpToId = Optional.ofNullable(revokedTokenRepository.findMaxIdRevokedBefore(now.minusMillis(SYNC_GAP_GRACE_MS)))
+                .orElse(0L);
+        syncFromDatabase();
+    }
+
+    public void revokeToken(Claims claims) {
+        String tokenId = claims.getId();
+        Date expiration = claims.getExpiration();
+        if (tokenId == null || expiration == null) {
+            return;
+        }
+        RevokedToken revokedToken = new RevokedToken(tokenId, claims.getSubject(), Instant.now(), expiration.toInstant());
+        revokedTokenRepository.save(revokedToken);
+        TransactionHooks.afterCommit(() -> apply(List.of(revokedToken)));
+    }
+
+    /**
+     * Revokes every token issued to the user up to now. Such tokens expire at the latest
+     * one token lifetime from now, after which the entry can be purged.
+     */
+    public void revokeUser(String username) {
+        Instant now = Instant.now();
+        RevokedToken revokedToken = new RevokedToken(null, username, now, now.plusMillis(jwtExpirationMs));
+        revokedTokenRepository.save(revokedToken);
+        TransactionHooks.afterCommit(() -> apply(List.of(revokedToken)));
+    }
+
+    public void revokeUsers(Collection<String> usernames) {
+        Instant now = Instant.now();
+        List<RevokedToken> revokedTokens = usernames.stream()
+                .map(username -> new RevokedToken(null, username, now, now.plusMillis(jwtExpirationMs)))
+                .toList();
+        revokedTokenRepository.saveAll(revokedTokens);
+        TransactionHooks.afterCommit(() -> apply(revokedTokens));
+    }
+
+    public boolean isRevoked(Claims claims) {
+        String tokenId = claims.getId();
+        if (tokenId != null && tokenIdFilter.mightContain(tokenId) && revokedTokenIds.containsKey(tokenId)) {
+            return true;
+        }
+
+        String username = claims.getSubject();
+        if (username != null && usernameFilter.mightContain(username)) {
+            Long revokedBefore = revokedUsersBefore.get(username);
+            Date issuedAt = claims.getIssuedAt();
+            // iat has second precision, so a token issued in the same second as the revocation counts as revoked
+            return revokedBefore != null && (issuedAt == null || issuedAt.getTime() <= revokedBefore);
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwtRevocationSyncMs:30000}")
+    public void syncFromDatabase() {
+        synchronized (syncLock) {
+            sync(System.currentTimeMillis());
+        }
+    }
+
+    private void sync(long nowMs) {
+        List<RevokedToken> revokedTokens = revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(syncedUpToId);
+        apply(revokedTokens);
+
+        long expectedId = syncedUpToId + 1;
+        for (RevokedToken revokedToken : revokedTokens) {
+            long id = revokedToken.getId();
+            for (long missing = Math.max(expectedId, id - MAX_TRACKED_GAPS); missing < id; missing++) {
+                missingIds.putIfAbsent(missing, nowMs);
+            }
+            missingIds.remove(id);
+            expectedId = Math.max(expectedId, id + 1);
+        }
+        missingIds.values().removeIf(firstSeenMs -> nowMs - firstSeenMs >= SYNC_GAP_GRACE_MS);
+
+        // Rows above the oldest open gap are read again next time; applying them twice is harmless.
+        syncedUpToId = missingIds.isEmpty() ? expectedId - 1 : missingIds.firstKey() - 1;
+    }
+
+    @Scheduled(fixedDelayString = "${app.jwtRevocationPurgeMs:3600000}")
+    public void purgeExpired() {
+        Instant now = Instant.now();
+        int deleted = revokedTokenRepository.deleteExpired(now);
+
+        long nowMs = now.toEpochMilli();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt < nowMs);
+        revokedUsersBefore.values().removeIf(revokedBefore -> revokedBefore + jwtExpirationMs < nowMs);
+        rebuildFilters();
+
+        logger.info("Purged {} expired token revocations", deleted);
+    }
+
+    private synchronized void apply(List<RevokedToken> revokedTokens) {
+        // Maps are written before the filters so a filter hit always finds its entry.
+        for (RevokedToken revokedToken : revokedTokens) {
+            if (revokedToken.getTokenId() != null) {
+                revokedTokenIds.put(revokedToken.getTokenId(), revokedToken.getExpiresAt().toEpochMilli());
+                tokenIdFilter.add(revokedToken.getTokenId());
+            } else {
+                revokedUsersBefore.merge(revokedToken.getUsername(), revokedToken.getRevokedAt().toEpochMilli(), Math::max);
+                usernameFilter.add(revokedToken.getUsername());
+            }
+        }
+    }
+
+    private synchronized void rebuildFilters() {
+        BloomFilter tokenIds = new BloomFilter(bloomBits, bloomHashes);
+        revokedTokenIds.keySet().forEach(tokenIds::add);
+        BloomFilter usernames = new BloomFilter(bloomBits, bloomHashes);
+        revokedUsersBefore.keySet().forEach(usernames::add);
+
+        tokenIdFilter = tokenIds;
+        usernameFilter = usernames;
+    }
+}
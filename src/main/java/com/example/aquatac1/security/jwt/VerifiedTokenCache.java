@@ -0,0 +1,108 @@
+package com.example.aquatac1.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+/**
+ * Bounded cache of tokens that already passed signature verification, keyed by the
+ * SHA-256 digest of the token so raw tokens are never kept in memory. An entry never
+ * outlives the token's own expiry; at capacity, Caffeine evicts in O(1) by recency and
+ * frequency instead of scanning.
+ */
+@Component
+public class VerifiedTokenCache {
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    @Value("${app.jwtCacheEnabled:true}")
+    private boolean enabled;
+
+    @Value("${app.jwtCacheMaxSize:10000}")
+    private int maxSize;
+
+    private Cache<String, JwtValidationResult> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    public JwtValidationResult get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        return entries.getIfPresent(digest(token));
+    }
+
+    public void put(String token, JwtValidationResult result) {
+        if (!enabled || !result.isValid() || result.getExpiration() == null) {
+            return;
+        }
+        entries.put(digest(token), result);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    public long getEvictionCount() {
+        return entries.stats().evictionCount();
+    }
+
+    private static String digest(String token) {
+        MessageDigest sha256 = SHA_256.get();
+        return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // Each entry lives until its token's exp claim; reads do not extend it.
+    private static final class TokenExpiry implements Expiry<String, JwtValidationResult> {
+        @Override
+        public long expireAfterCreate(String key, JwtValidationResult result, long currentTime) {
+            Date expiration = result.getExpiration();
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtValidationResult result, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtValidationResult result, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
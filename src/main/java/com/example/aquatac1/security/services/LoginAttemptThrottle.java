@@ -0,0 +1,150 @@
+package com.example.aquatac1.security.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Token buckets per username and per client IP, checked before any password work on
+ * signin. Each bucket locks only itself. The bucket maps are size-bounded caches with
+ * O(1) eviction: idle buckets expire, and when a map is full the frequency-based
+ * admission keeps hot keys (a name or address under attack) over keys seen once, so
+ * rotating usernames or addresses neither grows memory nor flushes the buckets that
+ * matter.
+ */
+@Component
+public class LoginAttemptThrottle {
+    @Value("${app.loginThrottleUsernameCapacity:5}")
+    private int usernameCapacity;
+
+    @Value("${app.loginThrottleUsernameRefillPerMinute:5}")
+    private double usernameRefillPerMinute;
+
+    @Value("${app.loginThrottleIpCapacity:20}")
+    private int ipCapacity;
+
+    @Value("${app.loginThrottleIpRefillPerMinute:20}")
+    private double ipRefillPerMinute;
+
+    @Value("${app.loginThrottleMaxEntries:100000}")
+    private int maxEntries;
+
+    @Value("${app.loginThrottleIdleEvictMs:600000}")
+    private long idleEvictMs;
+
+    private Cache<String, Bucket> usernameBuckets;
+    private Cache<String, Bucket> ipBuckets;
+
+    private final LongAdder rejectedByUsername = new LongAdder();
+    private final LongAdder rejectedByIp = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        usernameBuckets = newBucketCache();
+        ipBuckets = newBucketCache();
+    }
+
+    /**
+     * Takes one attempt from the client's IP bucket and the username's bucket. Returns 0
+     * when the attempt may proceed, otherwise the whole seconds until the exhausted bucket
+     * holds a token again.
+     */
+    public long tryAcquire(String username, String clientIp) {
+        return tryAcquire(username, clientIp, System.nanoTime());
+    }
+
+    long tryAcquire(String username, String clientIp, long now) {
+        long ipWaitNanos = tryConsume(ipBuckets, clientIp, ipCapacity, ipRefillPerMinute, now);
+        if (ipWaitNanos > 0) {
+            rejectedByIp.increment();
+            return toRetryAfterSeconds(ipWaitNanos);
+        }
+        if (username != null) {
+            long usernameWaitNanos = tryConsume(usernameBuckets, username.toLowerCase(Locale.ROOT),
+                    usernameCapacity, usernameRefillPerMinute, now);
+            if (usernameWaitNanos > 0) {
+                rejectedByUsername.increment();
+                return toRetryAfterSeconds(usernameWaitNanos);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gives the username its full bucket back after a successful signin, so a user who
+     * mistyped the password a few times is not left near the limit. The IP bucket is
+     * left alone: one valid account must not let a client reset its own address limit.
+     */
+    public void onSuccess(String username) {
+        if (username != null) {
+            usernameBuckets.invalidate(username.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public long getRejectedByUsernameCount() {
+        return rejectedByUsername.sum();
+    }
+
+    public long getRejectedByIpCount() {
+        return rejectedByIp.sum();
+    }
+
+    public long getEvictedCount() {
+        return usernameBuckets.stats().evictionCount() + ipBuckets.stats().evictionCount();
+    }
+
+    public long getTrackedUsernames() {
+        return usernameBuckets.estimatedSize();
+    }
+
+    public long getTrackedIps() {
+        return ipBuckets.estimatedSize();
+    }
+
+    private Cache<String, Bucket> newBucketCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(Duration.ofMillis(idleEvictMs))
+                .recordStats()
+                .build();
+    }
+
+    private static long tryConsume(Cache<String, Bucket> buckets, String key, int capacity, double refillPerMinute, long now) {
+        Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+        return bucket.tryConsume(capacity, refillPerMinute / 60_000_000_000.0, now);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAtNanos;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.refilledAtNanos = now;
+        }
+
+        // Returns 0 when a token was taken, otherwise the nanoseconds until one is available.
+        private synchronized long tryConsume(int capacity, double tokensPerNano, long now) {
+            if (now > refilledAtNanos) {
+                tokens = Math.min(capacity, tokens + (now - refilledAtNanos) * tokensPerNano);
+                refilledAtNanos = now;
+            }
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            tokens -= 1;
+            return 0;
+        }
+    }
+}
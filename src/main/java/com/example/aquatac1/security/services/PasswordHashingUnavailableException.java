@@ -0,0 +1,16 @@
+package com.example.aquatac1.security.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the password hashing queue is full; the client should retry later.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Error: Server is busy, please retry")
+public class PasswordHashingUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
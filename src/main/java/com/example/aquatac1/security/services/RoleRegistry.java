@@ -0,0 +1,82 @@
+package com.example.aquatac1.security.services;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import com.example.aquatac1.datasource.ReadYourWritesWindow;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.model.Role;
+import com.example.aquatac1.repository.RoleRepository;
+
+/**
+ * The fixed set of roles, loaded once at startup (seeding any missing rows), plus one
+ * shared immutable GrantedAuthority per role so principals never allocate their own.
+ */
+@Component
+public class RoleRegistry {
+    private static final Map<ERole, GrantedAuthority> AUTHORITIES = new EnumMap<>(ERole.class);
+    private static final Map<String, GrantedAuthority> AUTHORITIES_BY_NAME = new HashMap<>();
+
+    static {
+        for (ERole role : ERole.values()) {
+            GrantedAuthority authority = new SimpleGrantedAuthority(role.name());
+            AUTHORITIES.put(role, authority);
+            AUTHORITIES_BY_NAME.put(role.name(), authority);
+        }
+    }
+
+    @Autowired
+    RoleRepository roleRepository;
+
+    private Map<ERole, Role> roles;
+
+    @PostConstruct
+    void init() {
+        Map<ERole, Role> loaded = new EnumMap<>(ERole.class);
+        // A lagging replica would report the roles missing and have them inserted twice.
+        for (Role role : ReadYourWritesWindow.onPrimary(roleRepository::findAll)) {
+            loaded.putIfAbsent(role.getName(), role);
+        }
+
+        List<Role> missing = new ArrayList<>();
+        for (ERole name : ERole.values()) {
+            if (!loaded.containsKey(name)) {
+                missing.add(new Role(name));
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (Role role : roleRepository.saveAll(missing)) {
+                loaded.put(role.getName(), role);
+            }
+        }
+
+        roles = Collections.unmodifiableMap(loaded);
+    }
+
+    public Role getRole(ERole name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            throw new RuntimeException("Error: Role is not found.");
+        }
+        return role;
+    }
+
+    public static GrantedAuthority authorityOf(ERole role) {
+        return AUTHORITIES.get(role);
+    }
+
+    public static GrantedAuthority authorityOf(String roleName) {
+        GrantedAuthority authority = AUTHORITIES_BY_NAME.get(roleName);
+        return authority != null ? authority : new SimpleGrantedAuthority(roleName);
+    }
+}
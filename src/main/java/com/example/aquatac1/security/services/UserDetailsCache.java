@@ -0,0 +1,78 @@
+package com.example.aquatac1.security.services;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded, time-limited cache of loaded users. Concurrent misses for the same username
+ * share one loader call, which runs on the calling thread; failed loads are not cached.
+ * At capacity, Caffeine evicts in O(1) by recency and frequency. Write paths must call
+ * {@link #invalidate(String)} after changing a user.
+ */
+@Component
+public class UserDetailsCache {
+    @Value("${app.userCacheMaxSize:10000}")
+    private int maxSize;
+
+    @Value("${app.userCacheTtlMs:60000}")
+    private long ttlMs;
+
+    private Cache<String, UserDetailsImpl> entries;
+
+    @PostConstruct
+    void init() {
+        entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+    }
+
+    public UserDetailsImpl get(String username, Function<String, UserDetailsImpl> loader) {
+        return entries.get(username, loader);
+    }
+
+    public void invalidate(String username) {
+        entries.invalidate(username);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    public long getHitCount() {
+        return entries.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return entries.stats().missCount();
+    }
+
+    public double getHitRate() {
+        return entries.stats().hitRate();
+    }
+
+    // Size and expiry evictions; explicit invalidations are not counted.
+    public long getEvictionCount() {
+        return entries.stats().evictionCount();
+    }
+
+    public long getLoadFailureCount() {
+        return entries.stats().loadFailureCount();
+    }
+
+    public double getAverageLoadMillis() {
+        return entries.stats().averageLoadPenalty() / 1_000_000.0;
+    }
+}
@@ -1,9 +1,9 @@
 package com.example.aquatac1.security.services;
 
 
+import com.example.aquatac1.dto.UserCredentialsView;
 import com.example.aquatac1.model.User;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
@@ -32,7 +32,7 @@ public class UserDetailsImpl implements UserDetails {
 
     public static UserDetailsImpl build(User user) {
         List<GrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName().name()))
+                .map(role -> RoleRegistry.authorityOf(role.getName()))
                 .collect(Collectors.toList());
 
         return new UserDetailsImpl(
@@ -44,6 +44,25 @@ public class UserDetailsImpl implements UserDetails {
                 user.isApproved());
     }
 
+    /**
+     * Builds from the rows of a single user, as returned by UserRepository.findCredentialsByUsername.
+     */
+    public static UserDetailsImpl build(List<UserCredentialsView> rows) {
+        UserCredentialsView first = rows.get(0);
+        List<GrantedAuthority> authorities = rows.stream()
+                .filter(row -> row.getRole() != null)
+                .map(row -> RoleRegistry.authorityOf(row.getRole()))
+                .collect(Collectors.toList());
+
+        return new UserDetailsImpl(
+                first.getId(),
+                first.getUsername(),
+                first.getEmail(),
+                first.getPassword(),
+                authorities,
+                Boolean.TRUE.equals(first.getApproved()));
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -1,26 +1,70 @@
 package com.example.aquatac1.security.services;
 
 
-import com.example.aquatac1.model.User;
+import com.example.aquatac1.datasource.ReadYourWritesWindow;
+import com.example.aquatac1.dto.UserCredentialsView;
+import com.example.aquatac1.metrics.AuthMetrics;
 import com.example.aquatac1.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    AuthMetrics authMetrics;
+
+    @Autowired
+    ReadYourWritesWindow readYourWritesWindow;
+
+    // Cache hits must not open a transaction; the loader is a single read-only query.
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+        long start = System.nanoTime();
+        boolean found = false;
+        try {
+            UserDetails userDetails = userDetailsCache.get(username, this::loadFromDatabase);
+            found = true;
+            return userDetails;
+        } finally {
+            authMetrics.recordUserLookup(found, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Called by Spring Security after a successful login when the stored hash was made
+     * with a lower BCrypt cost than the current one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        readYourWritesWindow.recordWrite(user.getUsername());
+        userDetailsCache.invalidate(user.getUsername());
+
+        UserDetailsImpl details = (UserDetailsImpl) user;
+        return new UserDetailsImpl(details.getId(), details.getUsername(), details.getEmail(), newPassword,
+                details.getAuthorities(), details.isApproved());
+    }
+
+    private UserDetailsImpl loadFromDatabase(String username) {
+        // Just signed up or approved: the replica may not have the row yet.
+        List<UserCredentialsView> rows = readYourWritesWindow.readOnPrimaryIfRecent(username,
+                () -> userRepository.findCredentialsByUsername(username));
+        if (rows.isEmpty()) {
+            throw new UsernameNotFoundException("User Not Found with username: " + username);
+        }
 
-        return UserDetailsImpl.build(user);
+        return UserDetailsImpl.build(rows);
     }
-}
\ No newline at end of file
+}
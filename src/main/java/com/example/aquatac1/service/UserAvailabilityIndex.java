@@ -0,0 +1,161 @@
+package com.example.aquatac1.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import com.example.aquatac1.dto.UserIdentityView;
+import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Answers "is this username/email taken?" from Bloom filters of every registered
+ * username and email, going to the database only when a filter says "maybe". Filters
+ * are rebuilt periodically to pick up other instances' signups and drop deleted users.
+ * Until the first build finishes every lookup goes to the database.
+ * <p>
+ * A rebuild reads a snapshot, so this instance's signups that the snapshot may miss (made
+ * while it streams, or shortly before on a lagging replica) are kept in a short log and
+ * replayed into the new filters before they replace the old ones.
+ */
+@Component
+public class UserAvailabilityIndex {
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityIndex.class);
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Value("${app.availabilityBloomBits:8388608}")
+    private int bloomBits;
+
+    @Value("${app.availabilityBloomHashes:5}")
+    private int bloomHashes;
+
+    // How far the replica may lag behind; the rebuild also replays signups this long before it started.
+    @Value("${app.readYourWritesWindowMs:5000}")
+    private long replicaLagMs;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+
+    // Guards recentAdds, rebuildStartedAtMs and the swap, so no add() falls between a replay and the swap.
+    private final Object lock = new Object();
+    private final Deque<RecentAdd> recentAdds = new ArrayDeque<>();
+    private long rebuildStartedAtMs;
+
+    public UserAvailabilityIndex(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.availabilityRebuildMs:600000}", fixedDelayString = "${app.availabilityRebuildMs:600000}")
+    public void rebuild() {
+        long startedAtMs = System.currentTimeMillis();
+        synchronized (lock) {
+            rebuildStartedAtMs = startedAtMs;
+        }
+        try {
+            BloomFilter newUsernames = new BloomFilter(bloomBits, bloomHashes);
+            BloomFilter newEmails = new BloomFilter(bloomBits, bloomHashes);
+            long count = readOnlyTransaction.execute(status -> {
+                long loaded = 0;
+                try (Stream<UserIdentityView> users = userRepository.streamAllIdentities()) {
+                    for (UserIdentityView user : (Iterable<UserIdentityView>) users::iterator) {
+                        newUsernames.add(normalize(user.getUsername()));
+                        newEmails.add(normalize(user.getEmail()));
+                        loaded++;
+                    }
+                }
+                return loaded;
+            });
+
+            int replayed = 0;
+            synchronized (lock) {
+                for (RecentAdd recent : recentAdds) {
+                    if (recent.atMs >= startedAtMs - replicaLagMs) {
+                        newUsernames.add(recent.username);
+                        newEmails.add(recent.email);
+                        replayed++;
+                    }
+                }
+                usernames = newUsernames;
+                emails = newEmails;
+            }
+            logger.info("Availability index built from {} users and {} recent signups", count, replayed);
+        } finally {
+            synchronized (lock) {
+                rebuildStartedAtMs = 0;
+            }
+        }
+    }
+
+    public void add(String username, String email) {
+        RecentAdd added = new RecentAdd(System.currentTimeMillis(), normalize(username), normalize(email));
+        synchronized (lock) {
+            // Only what a rebuild (running now, or starting now) could still miss is kept.
+            long keepFromMs = (rebuildStartedAtMs != 0 ? rebuildStartedAtMs : added.atMs) - replicaLagMs;
+            while (!recentAdds.isEmpty() && recentAdds.peekFirst().atMs < keepFromMs) {
+                recentAdds.removeFirst();
+            }
+            recentAdds.addLast(added);
+
+            if (usernames != null) {
+                usernames.add(added.username);
+            }
+            if (emails != null) {
+                emails.add(added.email);
+            }
+        }
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        BloomFilter current = usernames;
+        if (current != null && !current.mightContain(normalize(username))) {
+            return true;
+        }
+        return !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        BloomFilter current = emails;
+        if (current != null && !current.mightContain(normalize(email))) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+
+    // The MySQL unique keys are case-insensitive, so the filters are too.
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class RecentAdd {
+        final long atMs;
+        final String username;
+        final String email;
+
+        RecentAdd(long atMs, String username, String email) {
+            this.atMs = atMs;
+            this.username = username;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.aquatac1.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import com.example.aquatac1.datasource.ReadYourWritesWindow;
+import com.example.aquatac1.dto.BulkOperationResponse;
+import com.example.aquatac1.dto.UserSummaryView;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.security.jwt.TokenRevocationService;
+import com.example.aquatac1.security.services.RoleRegistry;
+import com.example.aquatac1.security.services.UserDetailsCache;
+import com.example.aquatac1.util.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Admin operations over many users at once. Each operation reads the targeted users in
+ * one query per chunk and changes them with set-based statements or a JDBC batch; no
+ * User entities are loaded.
+ */
+@Service
+public class UserBulkService {
+    // Keeps IN lists and batches at a size MySQL handles comfortably.
+    private static final int CHUNK_SIZE = 1000;
+
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RoleRegistry roleRegistry;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    ReadYourWritesWindow readYourWritesWindow;
+
+    @Autowired
+    UserListVersion userListVersion;
+
+    @Transactional
+    public BulkOperationResponse approve(List<Long> userIds) {
+        return apply(userIds, user -> !Boolean.TRUE.equals(user.getApproved()), "APPROVED", "ALREADY_APPROVED", ids -> {
+            userRepository.updateApprovedByIdIn(ids, true);
+            return false;
+        });
+    }
+
+    /**
+     * Rejects pending registrations by deleting them. Users that are already approved are
+     * left alone.
+     */
+    @Transactional
+    public BulkOperationResponse reject(List<Long> userIds) {
+        return apply(userIds, user -> !Boolean.TRUE.equals(user.getApproved()), "REJECTED", "SKIPPED_APPROVED", ids -> {
+            deleteUsers(ids);
+            return true;
+        });
+    }
+
+    @Transactional
+    public BulkOperationResponse delete(List<Long> userIds) {
+        return apply(userIds, user -> true, "DELETED", null, ids -> {
+            deleteUsers(ids);
+            return true;
+        });
+    }
+
+    /**
+     * Replaces the roles of every targeted user. Live tokens are revoked because they
+     * carry the old roles.
+     */
+    @Transactional
+    public BulkOperationResponse assignRoles(List<Long> userIds, Set<ERole> roles) {
+        if (roles == null || roles.isEmpty()) {
+            throw new RuntimeException("Error: At least one role is required.");
+        }
+        List<Integer> roleIds = roles.stream().map(role -> roleRegistry.getRole(role).getId()).toList();
+
+        return apply(userIds, user -> true, "ROLES_ASSIGNED", null, ids -> {
+            userRepository.deleteRolesByUserIdIn(ids);
+            List<Object[]> rows = new ArrayList<>(ids.size() * roleIds.size());
+            for (Long id : ids) {
+                for (Integer roleId : roleIds) {
+                    rows.add(new Object[]{id, roleId});
+                }
+            }
+            jdbcTemplate.batchUpdate("insert into user_roles (user_id, role_id) values (?, ?)", rows);
+            return true;
+        });
+    }
+
+    private BulkOperationResponse apply(List<Long> userIds, Predicate<UserSummaryView> eligible,
+                                        String doneOutcome, String skippedOutcome, ChunkOperation operation) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        Map<Long, String> results = new LinkedHashMap<>();
+        int succeeded = 0;
+
+        for (int from = 0; from < distinctIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + CHUNK_SIZE, distinctIds.size()));
+            Map<Long, UserSummaryView> found = new HashMap<>();
+            for (UserSummaryView user : userRepository.findSummariesByIdIn(chunk)) {
+                found.put(user.getId(), user);
+            }
+
+            List<Long> targetIds = new ArrayList<>();
+            List<String> targetUsernames = new ArrayList<>();
+            for (Long id : chunk) {
+                UserSummaryView user = found.get(id);
+                if (user == null) {
+                    results.put(id, NOT_FOUND);
+                } else if (!eligible.test(user)) {
+                    results.put(id, skippedOutcome);
+                } else {
+                    results.put(id, doneOutcome);
+                    targetIds.add(id);
+                    targetUsernames.add(user.getUsername());
+                    succeeded++;
+                }
+            }
+            if (targetIds.isEmpty()) {
+                continue;
+            }
+
+            boolean revoke = operation.run(targetIds);
+            if (revoke) {
+                // The rows are written in this transaction; the in-memory maps follow on commit.
+                tokenRevocationService.revokeUsers(targetUsernames);
+            }
+            // After commit, so a rollback changes nothing and no concurrent load re-caches the old rows.
+            TransactionHooks.afterCommit(() -> {
+                readYourWritesWindow.recordWrites(targetUsernames);
+                targetUsernames.forEach(userDetailsCache::invalidate);
+            });
+            userListVersion.advance();
+        }
+
+        return new BulkOperationResponse(succeeded, results.size() - succeeded, results);
+    }
+
+    private void deleteUsers(List<Long> ids) {
+        // Bulk JPQL deletes do not cascade to the join table, so clear it first.
+        userRepository.deleteRolesByUserIdIn(ids);
+        userRepository.deleteByIdIn(ids);
+    }
+
+    @FunctionalInterface
+    private interface ChunkOperation {
+        // Returns whether the affected users' live tokens must be revoked.
+        boolean run(List<Long> ids);
+    }
+}
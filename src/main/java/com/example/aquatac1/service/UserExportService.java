@@ -0,0 +1,71 @@
+package com.example.aquatac1.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.example.aquatac1.dto.UserInfoResponse;
+import com.example.aquatac1.dto.UserRoleView;
+import com.example.aquatac1.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes every user as one JSON object per line while the rows are still streaming in
+ * from the database, so memory use does not depend on the number of users.
+ */
+@Service
+public class UserExportService {
+    private static final int FLUSH_EVERY = 1000;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportNdjson(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(UserInfoResponse.class);
+        long written = 0;
+
+        // Rows are projections, not entities, so nothing accumulates in the persistence context.
+        try (Stream<UserRoleView> rows = userRepository.streamAllUserRoles()) {
+            Iterator<UserRoleView> iterator = rows.iterator();
+            UserInfoResponse current = null;
+            while (iterator.hasNext()) {
+                UserRoleView row = iterator.next();
+                if (current == null || !current.getId().equals(row.getId())) {
+                    if (current != null) {
+                        writeLine(writer, current, out);
+                        if (++written % FLUSH_EVERY == 0) {
+                            out.flush();
+                        }
+                    }
+                    current = new UserInfoResponse(row.getId(), row.getUsername(), row.getEmail(),
+                            new ArrayList<>(), Boolean.TRUE.equals(row.getApproved()));
+                }
+                if (row.getRole() != null) {
+                    current.getRoles().add(row.getRole().name());
+                }
+            }
+            if (current != null) {
+                writeLine(writer, current, out);
+                written++;
+            }
+        }
+
+        out.flush();
+        return written;
+    }
+
+    private static void writeLine(ObjectWriter writer, UserInfoResponse user, OutputStream out) throws IOException {
+        out.write(writer.writeValueAsBytes(user));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.aquatac1.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one CSV import, polled by the admin UI while the import runs.
+ */
+public class UserImportJob {
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    // Only the first errors are kept so a bad file cannot exhaust memory.
+    private static final int MAX_ERRORS = 1000;
+
+    private final String id;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile String message;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<RowError> errors = Collections.synchronizedList(new ArrayList<>());
+
+    public UserImportJob(String id) {
+        this.id = id;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void finish(Status status, String message) {
+        this.status = status;
+        this.message = message;
+        this.finishedAt = Instant.now();
+    }
+
+    void rowProcessed() {
+        processed.incrementAndGet();
+    }
+
+    void rowImported() {
+        imported.incrementAndGet();
+    }
+
+    void rowFailed(long line, String error) {
+        failed.incrementAndGet();
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, error));
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public List<RowError> getErrors() {
+        synchronized (errors) {
+            return new ArrayList<>(errors);
+        }
+    }
+
+    public static class RowError {
+        private final long line;
+        private final String error;
+
+        public RowError(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
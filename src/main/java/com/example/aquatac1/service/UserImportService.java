@@ -0,0 +1,359 @@
+package com.example.aquatac1.service;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import com.example.aquatac1.datasource.ReadYourWritesWindow;
+import com.example.aquatac1.dto.UserSummaryView;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.security.services.BoundedPasswordEncoder;
+import com.example.aquatac1.security.services.RoleRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Imports accounts from a CSV file ({@code username,email,password[,role]}) in the
+ * background. Rows are processed in chunks: duplicates are checked with one query per
+ * chunk, passwords are hashed in parallel across cores, and users and their roles are
+ * written with JDBC batches.
+ */
+@Service
+public class UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RoleRegistry roleRegistry;
+
+    @Autowired
+    BoundedPasswordEncoder encoder;
+
+    @Autowired
+    UserAvailabilityIndex userAvailabilityIndex;
+
+    @Autowired
+    ReadYourWritesWindow readYourWritesWindow;
+
+    @Autowired
+    UserListVersion userListVersion;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // One import at a time; hashing within it fans out over every core.
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int hashingThreads = Runtime.getRuntime().availableProcessors();
+    private final ExecutorService hashingPool = Executors.newFixedThreadPool(hashingThreads, runnable -> {
+        Thread thread = new Thread(runnable, "user-import-hashing");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Map<String, UserImportJob> jobs = new ConcurrentHashMap<>();
+
+    public UserImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Reads the upload into memory (the request's copy is gone once the request ends) and
+     * queues the import. The file holds plaintext passwords, so it is never written to
+     * disk; multipart uploads are kept in memory too (spring.servlet.multipart.file-size-threshold).
+     */
+    public UserImportJob submit(InputStream csv) throws IOException {
+        byte[] content = csv.readAllBytes();
+
+        removeFinishedJobs();
+        UserImportJob job = new UserImportJob(UUID.randomUUID().toString());
+        jobs.put(job.getId(), job);
+        jobExecutor.submit(() -> run(job, content));
+        return job;
+    }
+
+    public UserImportJob getJob(String id) {
+        return jobs.get(id);
+    }
+
+    private void run(UserImportJob job, byte[] content) {
+        job.start();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(content), StandardCharsets.UTF_8))) {
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            Set<String> seenUsernames = new HashSet<>();
+            Set<String> seenEmails = new HashSet<>();
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || (lineNumber == 1 && line.toLowerCase(Locale.ROOT).startsWith("username"))) {
+                    continue;
+                }
+
+                ImportRow row = parse(lineNumber, line, job);
+                if (row == null) {
+                    continue;
+                }
+                // Usernames and emails are compared case-insensitively, like the MySQL unique keys.
+                if (!seenUsernames.add(row.username.toLowerCase(Locale.ROOT))) {
+                    fail(job, row, "Error: Username is duplicated in the file!");
+                    continue;
+                }
+                if (!seenEmails.add(row.email.toLowerCase(Locale.ROOT))) {
+                    fail(job, row, "Error: Email is duplicated in the file!");
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(job, chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+
+            job.finish(UserImportJob.Status.COMPLETED, null);
+        } catch (Exception e) {
+            logger.error("User import {} failed: {}", job.getId(), e.getMessage());
+            job.finish(UserImportJob.Status.FAILED, e.getMessage());
+        } finally {
+            // Passwords are hashed by now; do not leave them in the heap until the array is collected.
+            Arrays.fill(content, (byte) 0);
+        }
+    }
+
+    private void importChunk(UserImportJob job, List<ImportRow> chunk) throws InterruptedException, ExecutionException {
+        Set<String> existingUsernames = lowerCase(userRepository.findExistingUsernames(
+                chunk.stream().map(row -> row.username).toList()));
+        Set<String> existingEmails = lowerCase(userRepository.findExistingEmails(
+                chunk.stream().map(row -> row.email).toList()));
+
+        List<ImportRow> fresh = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (existingUsernames.contains(row.username.toLowerCase(Locale.ROOT))) {
+                fail(job, row, "Error: Username is already taken!");
+            } else if (existingEmails.contains(row.email.toLowerCase(Locale.ROOT))) {
+                fail(job, row, "Error: Email is already in use!");
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        // The import has its own pool, so it bypasses the request-facing hashing queue.
+        PasswordEncoder bcrypt = encoder.getDelegate();
+        hashAll(fresh, bcrypt);
+
+        try {
+            insert(fresh);
+            fresh.forEach(row -> {
+                job.rowProcessed();
+                job.rowImported();
+                readYourWritesWindow.recordWrite(row.username);
+                userAvailabilityIndex.add(row.username, row.email);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent signup took one of the names; retry row by row to isolate it.
+            for (ImportRow row : fresh) {
+                try {
+                    insert(List.of(row));
+                    job.rowProcessed();
+                    job.rowImported();
+                    readYourWritesWindow.recordWrite(row.username);
+                    userAvailabilityIndex.add(row.username, row.email);
+                } catch (DataIntegrityViolationException rowError) {
+                    fail(job, row, "Error: Username or email is already in use!");
+                }
+            }
+        }
+    }
+
+    /**
+     * BCrypt dominates the import: at cost 10 one core does roughly 11-20 hashes a second
+     * (about 700-1200 rows a minute), so throughput scales with cores, not with the batch
+     * writes. The chunk is split into one contiguous slice per thread.
+     */
+    private void hashAll(List<ImportRow> rows, PasswordEncoder bcrypt) throws InterruptedException, ExecutionException {
+        int sliceSize = (rows.size() + hashingThreads - 1) / hashingThreads;
+        List<Callable<Void>> slices = new ArrayList<>(hashingThreads);
+        for (int from = 0; from < rows.size(); from += sliceSize) {
+            List<ImportRow> slice = rows.subList(from, Math.min(from + sliceSize, rows.size()));
+            slices.add(() -> {
+                for (ImportRow row : slice) {
+                    row.passwordHash = bcrypt.encode(row.password);
+                }
+                return null;
+            });
+        }
+        for (Future<Void> done : hashingPool.invokeAll(slices)) {
+            done.get();
+        }
+    }
+
+    private void insert(List<ImportRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("insert into users (username, email, password, is_approved) values (?, ?, ?, ?)",
+                    rows.stream()
+                            .map(row -> new Object[]{row.username, row.email, row.passwordHash, row.role != ERole.ROLE_BUSINESS_OWNER})
+                            .toList());
+
+            Map<String, Long> ids = new HashMap<>();
+            for (UserSummaryView user : userRepository.findSummariesByUsernameIn(rows.stream().map(row -> row.username).toList())) {
+                ids.put(user.getUsername().toLowerCase(Locale.ROOT), user.getId());
+            }
+
+            jdbcTemplate.batchUpdate("insert into user_roles (user_id, role_id) values (?, ?)",
+                    rows.stream()
+                            .map(row -> new Object[]{ids.get(row.username.toLowerCase(Locale.ROOT)), roleRegistry.getRole(row.role).getId()})
+                            .toList());
+            userListVersion.advance();
+        });
+    }
+
+    private ImportRow parse(long lineNumber, String line, UserImportJob job) {
+        List<String> fields = splitCsvLine(line);
+        ImportRow row = new ImportRow(lineNumber);
+        if (fields.size() < 3 || fields.size() > 4) {
+            fail(job, row, "Error: Expected username,email,password[,role]");
+            return null;
+        }
+
+        row.username = fields.get(0).trim();
+        row.email = fields.get(1).trim();
+        row.password = fields.get(2);
+        String role = fields.size() == 4 ? fields.get(3).trim().toLowerCase(Locale.ROOT) : "";
+
+        // Same bounds as SignupRequest.
+        if (row.username.length() < 3 || row.username.length() > 20) {
+            fail(job, row, "Error: Username must be between 3 and 20 characters");
+            return null;
+        }
+        if (row.email.isEmpty() || row.email.length() > 50 || !row.email.contains("@")) {
+            fail(job, row, "Error: Email is invalid");
+            return null;
+        }
+        if (row.password.length() < 6 || row.password.length() > 40) {
+            fail(job, row, "Error: Password must be between 6 and 40 characters");
+            return null;
+        }
+
+        switch (role) {
+            case "", "association" -> row.role = ERole.ROLE_ASSOCIATION;
+            case "business_owner" -> row.role = ERole.ROLE_BUSINESS_OWNER;
+            case "user" -> row.role = ERole.ROLE_USER;
+            default -> {
+                fail(job, row, "Error: Role must be association, business_owner or user");
+                return null;
+            }
+        }
+        return row;
+    }
+
+    // Minimal RFC 4180 field splitting: commas inside double quotes, "" as an escaped quote.
+    static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static void fail(UserImportJob job, ImportRow row, String error) {
+        job.rowProcessed();
+        job.rowFailed(row.lineNumber, error);
+    }
+
+    private static Set<String> lowerCase(List<String> values) {
+        Set<String> result = new HashSet<>();
+        values.forEach(value -> result.add(value.toLowerCase(Locale.ROOT)));
+        return result;
+    }
+
+    private void removeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(JOB_RETENTION);
+        jobs.values().removeIf(job -> job.getFinishedAt() != null && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private static final class ImportRow {
+        private final long lineNumber;
+        private String username;
+        private String email;
+        private String password;
+        private String passwordHash;
+        private ERole role;
+
+        private ImportRow(long lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.aquatac1.service;
+
+import java.util.function.Supplier;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.aquatac1.datasource.ReadYourWritesWindow;
+import com.example.aquatac1.repository.ListVersionRepository;
+import com.example.aquatac1.util.TransactionHooks;
+
+/**
+ * Version stamp of the admin user listings, used as their ETag. The stamp is a row shared
+ * by all instances: write paths that change a listed user call {@link #advance()} or
+ * {@link #advanceLater()}, which bump it once the write has committed, and each instance
+ * polls it in the background, so requests never touch the database to check it. A stamp
+ * is therefore only ever moved past committed writes, and an instance sees other
+ * instances' writes within one poll.
+ */
+@Component
+public class UserListVersion {
+    private static final Logger logger = LoggerFactory.getLogger(UserListVersion.class);
+
+    private static final String LIST_NAME = "users";
+
+    @Autowired
+    ListVersionRepository listVersionRepository;
+
+    @Value("${app.readYourWritesWindowMs:5000}")
+    private long readYourWritesWindowMs;
+
+    // The bump runs after the write's commit, when that transaction's resources are still bound.
+    private final TransactionTemplate newTransaction;
+
+    // Registered at most once per transaction, however many chunks or rows it changes.
+    private final TransactionSynchronization bumpAfterCommit = new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+            bump();
+        }
+    };
+
+    private volatile long version;
+    private volatile long changedAtMs;
+    private volatile boolean bumpPending;
+
+    public UserListVersion(PlatformTransactionManager transactionManager) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    void init() {
+        refresh();
+    }
+
+    /**
+     * Marks the listings as changed. Inside a transaction the shared stamp is bumped once,
+     * after commit, in a transaction of its own, so the write never waits on the stamp's
+     * row lock and a rollback leaves the stamp alone. Outside one it is bumped right away.
+     */
+    public void advance() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+        } else if (!TransactionSynchronizationManager.getSynchronizations().contains(bumpAfterCommit)) {
+            TransactionSynchronizationManager.registerSynchronization(bumpAfterCommit);
+        }
+    }
+
+    /**
+     * Marks the listings as changed without any statement on the caller's path: the next
+     * poll bumps the stamp once for every change since the previous one. For high-volume
+     * writes no admin is waiting to see (signups); other instances see them no later than
+     * with {@link #advance()}, this one up to a poll interval later.
+     */
+    public void advanceLater() {
+        TransactionHooks.afterCommit(() -> bumpPending = true);
+    }
+
+    @Scheduled(fixedDelayString = "${app.userListVersionPollMs:1000}")
+    public void refresh() {
+        if (bumpPending) {
+            bumpPending = false;
+            bump();
+        } else {
+            observe(listVersionRepository.findVersion(LIST_NAME).orElse(0L));
+        }
+    }
+
+    // Strong validator: the same stamp always means the same listing bytes.
+    public String getETag() {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Reads a listing that will be tagged with the current stamp. Right after the stamp
+     * moved the replica may still lag behind it, and a stale listing would then be cached
+     * under the new stamp, so for a short while listings are read from the primary.
+     */
+    public <T> T read(Supplier<T> listing) {
+        if (System.currentTimeMillis() - changedAtMs < readYourWritesWindowMs) {
+            return ReadYourWritesWindow.onPrimary(listing);
+        }
+        return listing.get();
+    }
+
+    private void bump() {
+        try {
+            observe(newTransaction.execute(status -> {
+                listVersionRepository.increment(LIST_NAME);
+                return listVersionRepository.findVersion(LIST_NAME).orElse(0L);
+            }));
+        } catch (RuntimeException e) {
+            // The write itself is committed; the next poll retries, until then listings keep the old stamp.
+            bumpPending = true;
+            logger.warn("Could not bump the user listing version: {}", e.getMessage(), e);
+        }
+    }
+
+    // The window is opened before the stamp is published, so a reader that sees the new stamp also sees the window.
+    private synchronized void observe(long observed) {
+        if (observed > version) {
+            changedAtMs = System.currentTimeMillis();
+            version = observed;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.aquatac1.sql;
+
+import java.io.IOException;
+import java.util.Map;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.aquatac1.logging.RateLimitedLogger;
+
+/**
+ * Opens a statement collection for each request and, once it completes, warns about
+ * requests over the statement budget and about statements repeated often enough to be an
+ * N+1 pattern. Warnings are keyed by controller method so one bad endpoint cannot flood
+ * the log.
+ */
+public class SqlBudgetFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetFilter.class);
+    private static final RateLimitedLogger rateLimitedLogger = new RateLimitedLogger(logger, 60_000, 5);
+    private static final String UNMAPPED = "unmapped";
+
+    private final int statementBudget;
+    private final int repeatedStatementThreshold;
+
+    public SqlBudgetFilter(int statementBudget, int repeatedStatementThreshold) {
+        this.statementBudget = statementBudget;
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatementTracker.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            check(request, SqlStatementTracker.end());
+        }
+    }
+
+    private void check(HttpServletRequest request, SqlStatementStats stats) {
+        // Log keys come from controller methods only; requests no handler matched share one key,
+        // so arbitrary URIs can neither grow the limiter's window map nor dodge its limit.
+        String handler = stats.getHandler() != null ? stats.getHandler() : request.getRequestURI();
+        String key = stats.getHandler() != null ? stats.getHandler() : UNMAPPED;
+        if (stats.getStatementCount() > statementBudget) {
+            rateLimitedLogger.warn("BUDGET " + key, "SQL budget exceeded by {} {}: {} statements (budget {}), {} ms in JDBC",
+                    request.getMethod(), handler, stats.getStatementCount(), statementBudget, String.format("%.1f", stats.getJdbcMillis()));
+        }
+
+        Map<String, Integer> repeated = stats.getRepeatedStatements(repeatedStatementThreshold);
+        if (!repeated.isEmpty()) {
+            repeated.forEach((sql, executions) -> rateLimitedLogger.warn("N+1 " + key,
+                    "Possible N+1 in {} {}: executed {} times: {}", request.getMethod(), handler, executions, sql));
+        }
+    }
+}
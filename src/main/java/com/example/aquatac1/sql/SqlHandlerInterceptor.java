@@ -0,0 +1,20 @@
+package com.example.aquatac1.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Tags the request's statement collection with the controller method that handles it.
+ */
+public class SqlHandlerInterceptor implements HandlerInterceptor {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementStats stats = SqlStatementTracker.current();
+        if (stats != null && handler instanceof HandlerMethod handlerMethod) {
+            stats.setHandler(handlerMethod.getBeanType().getSimpleName() + "#" + handlerMethod.getMethod().getName());
+        }
+        return true;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.aquatac1.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Hands out connections whose statements report every execution, with its SQL and JDBC
+ * time, to the {@link SqlStatementTracker} of the current thread. Covers JPA and
+ * JdbcTemplate alike. A JDBC batch counts as one statement, as it is one round trip.
+ */
+public class SqlInspectingDataSource extends DelegatingDataSource {
+    private static final String BATCH = "<batch>";
+
+    public SqlInspectingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return inspect(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return inspect(super.getConnection(username, password));
+    }
+
+    private static Connection inspect(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement/prepareCall carry the SQL up front; createStatement passes it to execute*
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return inspect(statement, method.getReturnType(), sql);
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Statement inspect(Statement statement, Class<?> type, String preparedSql) {
+        return proxy((Class<Statement>) type, statement, (proxy, method, args) -> {
+            SqlStatementStats stats = SqlStatementTracker.current();
+            if (stats == null || !method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                stats.record(sql != null ? sql : BATCH, System.nanoTime() - start);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(SqlInspectingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
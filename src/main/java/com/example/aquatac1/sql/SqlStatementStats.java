@@ -0,0 +1,65 @@
+package com.example.aquatac1.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JDBC statements executed on one thread between {@link SqlStatementTracker#begin()} and
+ * {@link SqlStatementTracker#end()}, usually one HTTP request. Not thread-safe: it is only
+ * ever touched by the thread that owns it.
+ */
+public class SqlStatementStats {
+    private int statementCount;
+    private long jdbcNanos;
+    // SQL text (with ? placeholders for prepared statements) -> executions
+    private final Map<String, Integer> executionsBySql = new LinkedHashMap<>();
+    private String handler;
+
+    void record(String sql, long nanos) {
+        statementCount++;
+        jdbcNanos += nanos;
+        executionsBySql.merge(sql, 1, Integer::sum);
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public double getJdbcMillis() {
+        return jdbcNanos / 1_000_000.0;
+    }
+
+    /**
+     * Executions of statements whose SQL contains the fragment, e.g. {@code "from user_roles"}.
+     */
+    public int countMatching(String sqlFragment) {
+        String fragment = sqlFragment.toLowerCase();
+        return executionsBySql.entrySet().stream()
+                .filter(entry -> entry.getKey().toLowerCase().contains(fragment))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+    }
+
+    /**
+     * Statements executed at least {@code minExecutions} times: the signature of an N+1
+     * pattern such as lazily loading each user's roles.
+     */
+    public Map<String, Integer> getRepeatedStatements(int minExecutions) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executionsBySql.forEach((sql, executions) -> {
+            if (executions >= minExecutions) {
+                repeated.put(sql, executions);
+            }
+        });
+        return repeated;
+    }
+
+    // Controller method that handled the request, e.g. AdminController#getAllUsers
+    public String getHandler() {
+        return handler;
+    }
+
+    public void setHandler(String handler) {
+        this.handler = handler;
+    }
+}
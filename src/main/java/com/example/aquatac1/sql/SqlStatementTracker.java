@@ -0,0 +1,37 @@
+package com.example.aquatac1.sql;
+
+/**
+ * Thread-bound collection of {@link SqlStatementStats}. Statements are only recorded while
+ * a collection is open on the executing thread; everywhere else the inspecting data source
+ * passes calls straight through.
+ * <pre>
+ * SqlStatementTracker.begin();
+ * try {
+ *     adminController.getAllUsers();
+ * } finally {
+ *     assertEquals(1, SqlStatementTracker.end().getStatementCount());
+ * }
+ * </pre>
+ */
+public final class SqlStatementTracker {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementTracker() {
+    }
+
+    public static SqlStatementStats begin() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    public static SqlStatementStats end() {
+        SqlStatementStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+}
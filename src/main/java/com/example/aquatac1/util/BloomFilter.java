@@ -0,0 +1,65 @@
+package com.example.aquatac1.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. Lookups hash the characters in place, so
+ * {@link #mightContain(String)} does not allocate. Elements cannot be removed; callers
+ * rebuild a fresh filter when the underlying set shrinks.
+ */
+public class BloomFilter {
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+
+    public BloomFilter(int bitCount, int hashCount) {
+        if (bitCount < 64 || hashCount < 1) {
+            throw new IllegalArgumentException("Bloom filter needs at least 64 bits and one hash function");
+        }
+        this.words = new AtomicLongArray((bitCount + 63) >>> 6);
+        this.bitCount = words.length() << 6;
+        this.hashCount = hashCount;
+    }
+
+    public void add(String value) {
+        int h1 = value.hashCode();
+        int h2 = secondaryHash(value);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            int word = bit >>> 6;
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    /**
+     * Returns false only if the value was definitely never added.
+     */
+    public boolean mightContain(String value) {
+        int h1 = value.hashCode();
+        int h2 = secondaryHash(value);
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a over the UTF-16 chars, forced odd so double hashing visits distinct bits.
+    private static int secondaryHash(String value) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x01000193;
+        }
+        return hash | 1;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.aquatac1.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory side effects of a write (cache invalidation, revocation maps, version
+ * stamps) until the surrounding transaction has committed, so a rollback leaves them
+ * untouched and no concurrent reader can re-cache the pre-commit row. Outside a
+ * transaction the action runs immediately. The action must not use the database: the
+ * committed transaction's resources are still bound while it runs.
+ */
+public final class TransactionHooks {
+    private TransactionHooks() {
+    }
+
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+-- The released schema exactly as ddl-auto=update created it, constraint names included.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate), so
+-- this script only runs on empty ones; anything added after the release goes in a later
+-- migration.
+
+create table roles (
+    id integer not null auto_increment,
+    name enum ('ROLE_ADMIN','ROLE_ASSOCIATION','ROLE_BUSINESS_OWNER','ROLE_USER'),
+    primary key (id)
+) engine=InnoDB;
+
+create table user_roles (
+    user_id bigint not null,
+    role_id integer not null,
+    primary key (user_id, role_id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    email varchar(50) not null,
+    is_approved bit,
+    password varchar(120) not null,
+    username varchar(20) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+alter table users add constraint UK6dotkott2kjsp8vw4d0m25fb7 unique (email);
+alter table user_roles add constraint FKh8ciramu9cc9q3qcqiv4ue8a6 foreign key (role_id) references roles (id);
+alter table user_roles add constraint FKhfh9dx7w3ubf1co1vdev94g3f foreign key (user_id) references users (id);
@@ -0,0 +1,10 @@
+-- Token revocation storage. Databases that ran builds between the release and the move to
+-- Flyway already have this table from ddl-auto=update, hence "if not exists".
+create table if not exists revoked_tokens (
+    id bigint not null auto_increment,
+    expires_at datetime(6) not null,
+    revoked_at datetime(6) not null,
+    token_id varchar(36),
+    username varchar(20) not null,
+    primary key (id)
+) engine=InnoDB;
@@ -0,0 +1,13 @@
+-- Pending-approval reads (findByIsApprovedFalse, findPendingUserRoles, the approved filter of the
+-- keyset page) are equality on is_approved and then id order. MySQL has no partial indexes, so
+-- is_approved leads and username/email are carried along: the users side of the pending listing
+-- is then answered from the index alone.
+create index idx_users_approved_id on users (is_approved, id, username, email);
+
+-- findByRoles_Name and the role filter of the keyset page start from a role and look up its users;
+-- the primary key only serves the user -> roles direction.
+create index idx_user_roles_role_user on user_roles (role_id, user_id);
+
+-- Startup load and purge (expires_at), and the cross-instance sync (revoked_at).
+create index idx_revoked_tokens_expires_at on revoked_tokens (expires_at);
+create index idx_revoked_tokens_revoked_at on revoked_tokens (revoked_at);
@@ -0,0 +1,9 @@
+-- Shared version stamps of cached listings (the ETag of the admin user listings). Every instance
+-- polls them, so a write on any instance invalidates conditional GETs on all of them.
+create table list_versions (
+    name varchar(30) not null,
+    version bigint not null,
+    primary key (name)
+) engine=InnoDB;
+
+insert into list_versions (name, version) values ('users', 0);
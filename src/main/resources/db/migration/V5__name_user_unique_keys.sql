@@ -0,0 +1,5 @@
+-- The unique keys on users still carry the names ddl-auto generated for them (V1). Give them the
+-- names the entity declares, so a duplicate signup can be told apart by the key that rejected it.
+alter table users
+    rename index UKr43af9ap4edm43mmtq01oddj6 to uk_users_username,
+    rename index UK6dotkott2kjsp8vw4d0m25fb7 to uk_users_email;
@@ -0,0 +1,107 @@
+package com.example.aquatac1.contoller;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import com.example.aquatac1.H2StreamingFetchSizeConfig;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.model.User;
+import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.security.jwt.JwtUtils;
+import com.example.aquatac1.security.services.RoleRegistry;
+import com.example.aquatac1.security.services.UserDetailsImpl;
+import com.example.aquatac1.security.services.UserDetailsServiceImpl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bulk endpoints end to end: request validation, the per-id outcomes and their JSON.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@Import(H2StreamingFetchSizeConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AdminBulkOperationsTest {
+    private static final long MISSING_ID = 999_999;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRegistry roleRegistry;
+
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    JwtUtils jwtUtils;
+
+    private String adminToken;
+
+    @BeforeAll
+    void createAdmin() {
+        saveUser("bulkadmin", true, ERole.ROLE_ADMIN);
+        adminToken = jwtUtils.generateJwtCookie((UserDetailsImpl) userDetailsService.loadUserByUsername("bulkadmin")).getValue();
+    }
+
+    @Test
+    void mixedFoundAndMissingIdsGetOneOutcomeEach() throws Exception {
+        long pending = saveUser("bulkpending", false, ERole.ROLE_USER);
+        long approved = saveUser("bulkapproved", true, ERole.ROLE_USER);
+
+        bulkApprove("[" + pending + ", " + MISSING_ID + ", " + approved + ", " + pending + "]")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.succeeded").value(1))
+                .andExpect(jsonPath("$.unchanged").value(2))
+                .andExpect(jsonPath("$.results['" + pending + "']").value("APPROVED"))
+                .andExpect(jsonPath("$.results['" + MISSING_ID + "']").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.results['" + approved + "']").value("ALREADY_APPROVED"));
+
+        assertTrue(userRepository.findById(pending).orElseThrow().isApproved());
+    }
+
+    @Test
+    void nullIdIsRejectedBeforeAnyChange() throws Exception {
+        long pending = saveUser("bulknull", false, ERole.ROLE_USER);
+
+        bulkApprove("[" + pending + ", null, " + MISSING_ID + "]")
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Error: User ids must not be null."));
+
+        assertFalse(userRepository.findById(pending).orElseThrow().isApproved());
+    }
+
+    private ResultActions bulkApprove(String userIds) throws Exception {
+        return mockMvc.perform(post("/api/admin/users/bulk/approve")
+                .header("Authorization", "Bearer " + adminToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userIds\": " + userIds + "}"));
+    }
+
+    private long saveUser(String name, boolean approved, ERole role) {
+        User user = new User(name, name + "@example.com", "{noop}secret");
+        user.setApproved(approved);
+        user.setRoles(Set.of(roleRegistry.getRole(role)));
+        return userRepository.save(user).getId();
+    }
+}
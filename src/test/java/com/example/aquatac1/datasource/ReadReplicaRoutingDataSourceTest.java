@@ -0,0 +1,112 @@
+package com.example.aquatac1.datasource;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two embedded H2 databases stand in for primary and replica; each answers with its own
+ * name, so every test can see where its statement was routed.
+ */
+class ReadReplicaRoutingDataSourceTest {
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void createDatabases() {
+        primary = database("primary");
+        replica = database("replica");
+
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica);
+        routing.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void shutdownDatabases() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        assertEquals("replica", readOnly.execute(status -> whoAnswers()));
+    }
+
+    @Test
+    void readWriteTransactionGoesToPrimary() {
+        assertEquals("primary", readWrite.execute(status -> whoAnswers()));
+    }
+
+    @Test
+    void statementOutsideTransactionGoesToPrimary() {
+        assertEquals("primary", whoAnswers());
+    }
+
+    @Test
+    void readOnlyCallInsideWriteTransactionStaysOnPrimary() {
+        assertEquals("primary", readWrite.execute(status -> readOnly.execute(inner -> whoAnswers())));
+    }
+
+    @Test
+    void pinnedReadGoesToPrimary() {
+        assertEquals("primary", ReadYourWritesWindow.onPrimary(() -> readOnly.execute(status -> whoAnswers())));
+        assertFalse(ReadYourWritesWindow.isPinnedToPrimary());
+        assertEquals("replica", readOnly.execute(status -> whoAnswers()));
+    }
+
+    @Test
+    void recentWriteIsReadFromPrimaryUntilWindowCloses() {
+        ReadYourWritesWindow window = new ReadYourWritesWindow();
+        ReflectionTestUtils.setField(window, "windowMs", 60_000L);
+
+        window.recordWrite("NewUser");
+        assertTrue(window.isRecent("newuser"));
+        assertEquals("primary", window.readOnPrimaryIfRecent("newuser", () -> readOnly.execute(status -> whoAnswers())));
+        assertEquals("replica", window.readOnPrimaryIfRecent("someoneelse", () -> readOnly.execute(status -> whoAnswers())));
+
+        ReflectionTestUtils.setField(window, "windowMs", 0L);
+        window.recordWrite("NewUser");
+        window.evictExpired();
+        assertFalse(window.isRecent("newuser"));
+        assertEquals("replica", window.readOnPrimaryIfRecent("newuser", () -> readOnly.execute(status -> whoAnswers())));
+    }
+
+    private String whoAnswers() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static EmbeddedDatabase database(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return database;
+    }
+}
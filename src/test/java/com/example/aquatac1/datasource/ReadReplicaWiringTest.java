@@ -0,0 +1,198 @@
+package com.example.aquatac1.datasource;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.aquatac1.H2StreamingFetchSizeConfig;
+import com.example.aquatac1.dto.UserCredentialsView;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.model.User;
+import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.security.jwt.JwtUtils;
+import com.example.aquatac1.security.services.RoleRegistry;
+import com.example.aquatac1.security.services.UserDetailsCache;
+import com.example.aquatac1.security.services.UserDetailsImpl;
+import com.example.aquatac1.security.services.UserDetailsServiceImpl;
+import com.example.aquatac1.sql.SqlStatementTracker;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The replica wiring in the full context: ReadReplicaConfig, JPA on the lazy routing
+ * proxy, the SQL inspecting wrapper and the read-your-writes pin. The replica starts as
+ * a copy of the primary and is then left behind by one update and one signup, so each
+ * read shows which database answered it.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+@Import(H2StreamingFetchSizeConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReadReplicaWiringTest {
+    static final String REPLICA_URL =
+            "jdbc:h2:mem:replica-wiring;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+    // V5 only renames the unique keys, in MySQL syntax H2 does not parse.
+    private static final List<String> MIGRATIONS = List.of("V1__baseline_schema.sql", "V2__revoked_tokens.sql",
+            "V3__indexes_for_hot_queries.sql", "V4__list_versions.sql");
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRegistry roleRegistry;
+
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    ReadYourWritesWindow readYourWritesWindow;
+
+    @Autowired
+    JwtUtils jwtUtils;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    // A real replica already has the schema when the application starts; this one gets it from the migrations.
+    @DynamicPropertySource
+    static void replicaDataSource(DynamicPropertyRegistry registry) {
+        JdbcTemplate replica = replica();
+        for (String migration : MIGRATIONS) {
+            replica.execute("runscript from 'classpath:db/migration/" + migration + "'");
+        }
+        registry.add("app.datasource.replica.url", () -> REPLICA_URL);
+    }
+
+    @BeforeAll
+    void replicateThenDiverge() {
+        saveUser("stale", "replica@example.com", true, ERole.ROLE_USER);
+        saveUser("owner", "owner@example.com", false, ERole.ROLE_BUSINESS_OWNER);
+        saveUser("admin", "admin@example.com", true, ERole.ROLE_ADMIN);
+
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        JdbcTemplate replica = replica();
+        for (String table : List.of("roles", "users", "user_roles")) {
+            primary.queryForList("script columns table " + table, String.class).stream()
+                    .filter(statement -> statement.startsWith("INSERT"))
+                    .forEach(replica::execute);
+        }
+
+        primary.update("update users set email = 'primary@example.com' where username = 'stale'");
+        saveUser("fresh", "fresh@example.com", true, ERole.ROLE_USER);
+    }
+
+    @BeforeEach
+    void clearCache() {
+        userDetailsCache.clear();
+    }
+
+    @AfterEach
+    void endTracking() {
+        SqlStatementTracker.end();
+    }
+
+    @Test
+    void applicationDataSourceIsInspectedRoutingProxy() throws Exception {
+        assertTrue(dataSource.isWrapperFor(ReadReplicaRoutingDataSource.class));
+
+        SqlStatementTracker.begin();
+        userRepository.findCredentialsByUsername("stale");
+        assertEquals(1, SqlStatementTracker.end().getStatementCount());
+    }
+
+    @Test
+    void readOnlyRepositoryQueryGoesToReplica() {
+        List<UserCredentialsView> rows = userRepository.findCredentialsByUsername("stale");
+
+        assertEquals("replica@example.com", rows.get(0).getEmail());
+        assertTrue(userRepository.findCredentialsByUsername("fresh").isEmpty());
+        assertTrue(userRepository.existsByUsername("stale"));
+        assertEquals(Boolean.FALSE, userRepository.existsByUsername("fresh"));
+    }
+
+    @Test
+    void credentialLoadGoesToPrimaryOnlyAfterWrite() {
+        assertEquals("replica@example.com", email(userDetailsService.loadUserByUsername("stale")));
+
+        userDetailsCache.clear();
+        readYourWritesWindow.recordWrite("stale");
+        assertEquals("primary@example.com", email(userDetailsService.loadUserByUsername("stale")));
+    }
+
+    @Test
+    void signupIsFoundOnPrimaryWhileReplicaLags() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("fresh"));
+
+        readYourWritesWindow.recordWrite("fresh");
+        assertEquals("fresh@example.com", email(userDetailsService.loadUserByUsername("fresh")));
+    }
+
+    // The lookup is a read-only transaction and the update a read-write one, within one request.
+    @Test
+    void approveRequestWritesToPrimary() throws Exception {
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        Long ownerId = primary.queryForObject("select id from users where username = 'owner'", Long.class);
+        String token = jwtUtils.generateJwtCookie((UserDetailsImpl) userDetailsService.loadUserByUsername("admin")).getValue();
+
+        mockMvc.perform(post("/api/admin/approve-user/{userId}", ownerId).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        assertTrue(isApproved(primary, "owner"));
+        assertFalse(isApproved(replica(), "owner"));
+    }
+
+    private void saveUser(String name, String email, boolean approved, ERole role) {
+        User user = new User(name, email, "{noop}secret");
+        user.setApproved(approved);
+        user.setRoles(Set.of(roleRegistry.getRole(role)));
+        userRepository.save(user);
+    }
+
+    private static boolean isApproved(JdbcTemplate database, String username) {
+        return database.queryForObject("select is_approved from users where username = ?", Boolean.class, username);
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+
+    private static String email(UserDetails userDetails) {
+        return ((UserDetailsImpl) userDetails).getEmail();
+    }
+}
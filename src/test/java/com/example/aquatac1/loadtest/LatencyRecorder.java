@@ -0,0 +1,55 @@
+package com.example.aquatac1.loadtest;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with one bucket per millisecond up to a minute; slower
+ * requests land in the last bucket.
+ */
+class LatencyRecorder {
+    private static final int MAX_LATENCY_MS = 60_000;
+
+    private final LongAdder[] buckets = new LongAdder[MAX_LATENCY_MS + 1];
+    private final LongAdder errors = new LongAdder();
+
+    LatencyRecorder() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long latencyNanos, boolean error) {
+        buckets[(int) Math.min(latencyNanos / 1_000_000, MAX_LATENCY_MS)].increment();
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    long percentileMillis(double quantile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int latency = 0; latency < buckets.length; latency++) {
+            seen += buckets[latency].sum();
+            if (seen >= rank) {
+                return latency;
+            }
+        }
+        return MAX_LATENCY_MS;
+    }
+}
@@ -0,0 +1,377 @@
+package com.example.aquatac1.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.aquatac1.H2StreamingFetchSizeConfig;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.security.services.BoundedPasswordEncoder;
+import com.example.aquatac1.security.services.RoleRegistry;
+import com.example.aquatac1.service.UserAvailabilityIndex;
+import com.example.aquatac1.sql.SqlStatementStats;
+import com.example.aquatac1.sql.SqlStatementTracker;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the whole application against H2 in MySQL mode (h2 profile), seeds synthetic users and drives
+ * a weighted mix of signup, signin, dashboard and admin-listing requests from closed-loop
+ * clients. Reports throughput, latency percentiles and SQL statements per request, and
+ * fails when a threshold from application-loadtest.properties is missed.
+ *
+ * <p>Throughput and latency depend on the machine, so the load and those thresholds are
+ * scaled to it: clients and throughput by the CPU count, throughput and latency by how
+ * much slower than the reference machine one BCrypt hash is. Signin and signup wait for
+ * BCrypt and have their own latency threshold.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"h2", "loadtest"})
+@Import({H2StreamingFetchSizeConfig.class, LoadRegressionTest.StatementCounting.class})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoadRegressionTest {
+    private static final String ADMIN_USERNAME = "loadadmin";
+    private static final int TOKENS_PER_ROLE = 50;
+    private static final Set<String> BCRYPT_SCENARIOS = Set.of("signin", "signup");
+    private static final int CALIBRATION_HASHES = 5;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    Environment environment;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    RoleRegistry roleRegistry;
+
+    @Autowired
+    BoundedPasswordEncoder passwordEncoder;
+
+    @Autowired
+    UserAvailabilityIndex userAvailabilityIndex;
+
+    @Autowired
+    StatementCounting statementCounting;
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final AtomicLong signupCounter = new AtomicLong();
+
+    private Map<ERole, List<String>> approvedUsernames;
+    private List<String> userTokens;
+    private List<String> businessOwnerTokens;
+    private String adminToken;
+    private int clients;
+    private long bcryptMillis;
+
+    @BeforeAll
+    void seed() throws Exception {
+        SyntheticUserSeeder seeder = new SyntheticUserSeeder(jdbcTemplate, roleRegistry,
+                passwordEncoder.getDelegate().encode(SyntheticUserSeeder.PASSWORD));
+        approvedUsernames = seeder.seed(intProperty("loadtest.users"), doubleProperty("loadtest.pendingRatio"));
+        jdbcTemplate.update("update users set username = ? where username = ?",
+                ADMIN_USERNAME, approvedUsernames.get(ERole.ROLE_ADMIN).get(0));
+        // Built at startup from the empty schema; without this every availability check would skip the database.
+        userAvailabilityIndex.rebuild();
+
+        userTokens = signInAll(approvedUsernames.get(ERole.ROLE_USER));
+        businessOwnerTokens = signInAll(approvedUsernames.get(ERole.ROLE_BUSINESS_OWNER));
+        adminToken = signIn(ADMIN_USERNAME);
+
+        clients = intProperty("loadtest.clientsPerCpu") * Runtime.getRuntime().availableProcessors();
+        bcryptMillis = calibrateBcryptMillis();
+    }
+
+    @Test
+    void mixedTrafficMeetsThresholds() throws Exception {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String scenario : List.of("signin", "signup", "availability", "userDashboard",
+                "businessOwnerDashboard", "adminUsersPage", "adminPendingPage")) {
+            mix.put(scenario, intProperty("loadtest.mix." + scenario));
+        }
+        assertTrue(mix.values().stream().mapToInt(Integer::intValue).sum() == 100, "loadtest.mix.* must add up to 100");
+
+        run(mix, intProperty("loadtest.warmupSeconds"), null);
+
+        statementCounting.reset();
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        mix.keySet().forEach(scenario -> recorders.put(scenario, new LatencyRecorder()));
+        LatencyRecorder overall = new LatencyRecorder();
+        LatencyRecorder bcrypt = new LatencyRecorder();
+        LatencyRecorder other = new LatencyRecorder();
+        int durationSeconds = intProperty("loadtest.durationSeconds");
+        long elapsedNanos = run(mix, durationSeconds, (scenario, latencyNanos, error) -> {
+            recorders.get(scenario).record(latencyNanos, error);
+            overall.record(latencyNanos, error);
+            (BCRYPT_SCENARIOS.contains(scenario) ? bcrypt : other).record(latencyNanos, error);
+        });
+
+        long requests = overall.count();
+        double throughput = requests / (elapsedNanos / 1e9);
+        double errorRate = requests == 0 ? 1 : (double) overall.errors() / requests;
+        double statementsPerRequest = statementCounting.statementsPerRequest();
+
+        // How much slower than the reference machine this one is, judged by one BCrypt hash.
+        double slowdown = (double) bcryptMillis / doubleProperty("loadtest.referenceBcryptMs");
+        int cpus = Runtime.getRuntime().availableProcessors();
+        double minThroughput = doubleProperty("loadtest.minThroughputPerCpu") * cpus / slowdown;
+        long maxP99Ms = Math.round(doubleProperty("loadtest.maxP99Ms") * slowdown);
+        long maxBcryptP99Ms = Math.round(doubleProperty("loadtest.maxBcryptP99Ms") * slowdown);
+
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-24s %9s %7s %7s %7s %7s%n", "scenario", "requests", "errors", "p50ms", "p95ms", "p99ms"));
+        recorders.forEach((scenario, recorder) -> report.append(row(scenario, recorder)));
+        report.append(row("bcrypt (signin, signup)", bcrypt));
+        report.append(row("other", other));
+        report.append(row("total", overall));
+        report.append(String.format("throughput=%.1f req/s errorRate=%.4f statementsPerRequest=%.2f clients=%d duration=%ds%n",
+                throughput, errorRate, statementsPerRequest, clients, durationSeconds));
+        report.append(String.format("cpus=%d bcryptMs=%d slowdown=%.2f: minThroughput=%.1f req/s maxP99Ms=%d maxBcryptP99Ms=%d%n",
+                cpus, bcryptMillis, slowdown, minThroughput, maxP99Ms, maxBcryptP99Ms));
+        System.out.print(report);
+        Files.createDirectories(Path.of("target"));
+        Files.writeString(Path.of("target", "loadtest-report.txt"), report);
+
+        List<String> failures = new ArrayList<>();
+        if (throughput < minThroughput) {
+            failures.add(String.format("throughput %.1f < %.1f req/s", throughput, minThroughput));
+        }
+        if (other.percentileMillis(0.99) > maxP99Ms) {
+            failures.add(String.format("p99 %d > %d ms", other.percentileMillis(0.99), maxP99Ms));
+        }
+        if (bcrypt.percentileMillis(0.99) > maxBcryptP99Ms) {
+            failures.add(String.format("signin/signup p99 %d > %d ms", bcrypt.percentileMillis(0.99), maxBcryptP99Ms));
+        }
+        if (errorRate > doubleProperty("loadtest.maxErrorRate")) {
+            failures.add(String.format("error rate %.4f > %s", errorRate, environment.getProperty("loadtest.maxErrorRate")));
+        }
+        if (statementCounting.countedRequests() == 0) {
+            failures.add("no statements counted; app.sqlInspectionEnabled must be true");
+        } else if (statementsPerRequest > doubleProperty("loadtest.maxStatementsPerRequest")) {
+            failures.add(String.format("%.2f statements per request > %s", statementsPerRequest,
+                    environment.getProperty("loadtest.maxStatementsPerRequest")));
+        }
+        assertTrue(failures.isEmpty(), "Load regression: " + String.join("; ", failures));
+    }
+
+    // Median of a few hashes at the configured strength, on an idle application.
+    private long calibrateBcryptMillis() {
+        long[] millis = new long[CALIBRATION_HASHES];
+        for (int i = 0; i < millis.length; i++) {
+            long start = System.nanoTime();
+            passwordEncoder.getDelegate().encode(SyntheticUserSeeder.PASSWORD);
+            millis[i] = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        Arrays.sort(millis);
+        return millis[millis.length / 2];
+    }
+
+    private long run(Map<String, Integer> mix, int seconds, Sample sample) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        for (int i = 0; i < clients; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    String scenario = pick(mix);
+                    long sent = System.nanoTime();
+                    boolean error;
+                    try {
+                        error = send(scenario) >= 400;
+                    } catch (IOException e) {
+                        error = true;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    if (sample != null) {
+                        sample.record(scenario, System.nanoTime() - sent, error);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+        return System.nanoTime() - start;
+    }
+
+    private int send(String scenario) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (scenario) {
+            case "signin" -> post("/api/auth/signin", credentials(randomOf(approvedUsernames.get(ERole.ROLE_USER))));
+            case "signup" -> {
+                String username = "lt" + signupCounter.incrementAndGet() + "x" + random.nextInt(1000);
+                yield post("/api/auth/signup", String.format(
+                        "{\"username\":\"%s\",\"email\":\"%s@loadtest.example\",\"password\":\"%s\"}",
+                        username, username, SyntheticUserSeeder.PASSWORD));
+            }
+            case "availability" -> get("/api/auth/availability?username=seed" + random.nextInt(intProperty("loadtest.users") * 2), null);
+            case "userDashboard" -> get("/api/user/dashboard", randomOf(userTokens));
+            case "businessOwnerDashboard" -> get("/api/business-owner/dashboard", randomOf(businessOwnerTokens));
+            case "adminUsersPage" -> get("/api/admin/users/page?size=50&after=" + random.nextInt(intProperty("loadtest.users")), adminToken);
+            case "adminPendingPage" -> get("/api/admin/pending-approvals/page?size=50", adminToken);
+            default -> throw new IllegalArgumentException(scenario);
+        };
+    }
+
+    private List<String> signInAll(List<String> usernames) throws IOException, InterruptedException {
+        List<String> tokens = new ArrayList<>();
+        for (String username : usernames.subList(0, Math.min(TOKENS_PER_ROLE, usernames.size()))) {
+            tokens.add(signIn(username));
+        }
+        return tokens;
+    }
+
+    private String signIn(String username) throws IOException, InterruptedException {
+        HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(uri("/api/auth/signin"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(credentials(username)))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        String cookie = response.headers().firstValue("Set-Cookie")
+                .orElseThrow(() -> new IllegalStateException("Signin failed for " + username + ": " + response.statusCode()));
+        return cookie.substring("jwt=".length(), cookie.indexOf(';'));
+    }
+
+    private int get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int post(String path, String json) throws IOException, InterruptedException {
+        return httpClient.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String credentials(String username) {
+        return String.format("{\"username\":\"%s\",\"password\":\"%s\"}", username, SyntheticUserSeeder.PASSWORD);
+    }
+
+    private static String pick(Map<String, Integer> mix) {
+        int roll = ThreadLocalRandom.current().nextInt(100);
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty traffic mix");
+    }
+
+    private static String randomOf(List<String> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    private static String row(String scenario, LatencyRecorder recorder) {
+        return String.format("%-24s %9d %7d %7d %7d %7d%n", scenario, recorder.count(), recorder.errors(),
+                recorder.percentileMillis(0.50), recorder.percentileMillis(0.95), recorder.percentileMillis(0.99));
+    }
+
+    private int intProperty(String name) {
+        return environment.getRequiredProperty(name, Integer.class);
+    }
+
+    private double doubleProperty(String name) {
+        return environment.getRequiredProperty(name, Double.class);
+    }
+
+    @FunctionalInterface
+    private interface Sample {
+        void record(String scenario, long latencyNanos, boolean error);
+    }
+
+    /**
+     * Adds up the statements SqlStatementTracker collects for each request, the same
+     * count SqlBudgetFilter checks against the budget. Runs inside that filter, which
+     * opens and closes the collection.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class StatementCounting extends OncePerRequestFilter {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+
+        @Bean
+        FilterRegistrationBean<StatementCounting> statementCountingFilter() {
+            FilterRegistrationBean<StatementCounting> registration = new FilterRegistrationBean<>(this);
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+            return registration;
+        }
+
+        @Override
+        protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+                throws ServletException, IOException {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                SqlStatementStats stats = SqlStatementTracker.current();
+                if (stats != null) {
+                    statements.add(stats.getStatementCount());
+                    requests.increment();
+                }
+            }
+        }
+
+        void reset() {
+            requests.reset();
+            statements.reset();
+        }
+
+        long countedRequests() {
+            return requests.sum();
+        }
+
+        double statementsPerRequest() {
+            long counted = requests.sum();
+            return counted == 0 ? 0 : (double) statements.sum() / counted;
+        }
+    }
+}
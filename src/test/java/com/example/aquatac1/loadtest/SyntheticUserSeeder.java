@@ -0,0 +1,87 @@
+package com.example.aquatac1.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.security.services.RoleRegistry;
+
+/**
+ * Inserts synthetic users with JDBC batches, spread round-robin over every {@link ERole}
+ * and with a fixed fraction left pending approval. All users share one password, hashed
+ * once, so seeding cost does not depend on the BCrypt strength.
+ */
+class SyntheticUserSeeder {
+    static final String PASSWORD = "loadtest-password";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RoleRegistry roleRegistry;
+    private final String passwordHash;
+
+    SyntheticUserSeeder(JdbcTemplate jdbcTemplate, RoleRegistry roleRegistry, String passwordHash) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.roleRegistry = roleRegistry;
+        this.passwordHash = passwordHash;
+    }
+
+    /**
+     * Returns the usernames of the approved users per role, for traffic that needs to sign in.
+     */
+    Map<ERole, List<String>> seed(int userCount, double pendingRatio) {
+        ERole[] roles = ERole.values();
+        Map<ERole, List<String>> approvedUsernames = new EnumMap<>(ERole.class);
+        for (ERole role : roles) {
+            approvedUsernames.put(role, new ArrayList<>());
+        }
+
+        // Pending users are spread evenly: user i is pending when the running share falls behind the ratio.
+        int pendingSoFar = 0;
+        List<Object[]> users = new ArrayList<>(BATCH_SIZE);
+        List<ERole> batchRoles = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < userCount; i++) {
+            ERole role = roles[i % roles.length];
+            boolean pending = pendingSoFar < Math.round((i + 1) * pendingRatio);
+            if (pending) {
+                pendingSoFar++;
+            }
+            String username = "seed" + i;
+            users.add(new Object[]{username, username + "@loadtest.example", passwordHash, !pending});
+            batchRoles.add(role);
+            if (!pending) {
+                approvedUsernames.get(role).add(username);
+            }
+
+            if (users.size() == BATCH_SIZE || i == userCount - 1) {
+                insert(users, batchRoles);
+                users.clear();
+                batchRoles.clear();
+            }
+        }
+        return approvedUsernames;
+    }
+
+    private void insert(List<Object[]> users, List<ERole> roles) {
+        long lastId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from users", Long.class);
+        jdbcTemplate.batchUpdate("insert into users (username, email, password, is_approved) values (?, ?, ?, ?)", users);
+
+        // Seeding is single-threaded, so the rows past the previous maximum id are exactly this batch.
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query("select id, username from users where id > ?",
+                row -> {
+                    ids.put(row.getString("username"), row.getLong("id"));
+                }, lastId);
+
+        List<Object[]> userRoles = new ArrayList<>(users.size());
+        for (int i = 0; i < users.size(); i++) {
+            userRoles.add(new Object[]{ids.get((String) users.get(i)[0]), roleRegistry.getRole(roles.get(i)).getId()});
+        }
+        jdbcTemplate.batchUpdate("insert into user_roles (user_id, role_id) values (?, ?)", userRoles);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.aquatac1.security.jwt;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.security.services.RoleRegistry;
+import com.example.aquatac1.security.services.UserDetailsImpl;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+    private JwtUtils jwtUtils;
+    private UserDetailsImpl userDetails;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+                "benchmarkSecretKeyThatIsAtLeastSixtyFourCharactersLongForTheHs512Algorithm");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+        jwtUtils.init();
+
+        userDetails = new UserDetailsImpl(42L, "benchmark", "benchmark@example.com", "{noop}secret",
+                List.of(RoleRegistry.authorityOf(ERole.ROLE_USER)), true);
+        validToken = jwtUtils.generateJwtToken(userDetails);
+        // Flip one signature character so parsing succeeds but verification fails.
+        char last = validToken.charAt(validToken.length() - 1);
+        tamperedToken = validToken.substring(0, validToken.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateJwtToken(userDetails);
+    }
+
+    @Benchmark
+    public JwtValidationResult verifyValidToken() {
+        return jwtUtils.verifyJwtToken(validToken);
+    }
+
+    @Benchmark
+    public JwtValidationResult verifyTamperedToken() {
+        return jwtUtils.verifyJwtToken(tamperedToken);
+    }
+
+    @Benchmark
+    public UserDetailsImpl userDetailsFromClaims() {
+        return jwtUtils.getUserDetailsFromClaims(jwtUtils.verifyJwtToken(validToken).getClaims());
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.aquatac1.security.jwt;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.aquatac1.model.RevokedToken;
+import com.example.aquatac1.repository.RevokedTokenRepository;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Revocation state of one instance, with the table stubbed: rows "written by other
+ * instances" are whatever the stub returns to the next sync.
+ */
+class TokenRevocationServiceTest {
+    private static final long JWT_EXPIRATION_MS = 3600000;
+
+    private RevokedTokenRepository revokedTokenRepository;
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void createService() {
+        revokedTokenRepository = mock(RevokedTokenRepository.class);
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of());
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(anyLong())).thenReturn(List.of());
+
+        service = new TokenRevocationService();
+        service.revokedTokenRepository = revokedTokenRepository;
+        ReflectionTestUtils.setField(service, "jwtExpirationMs", (int) JWT_EXPIRATION_MS);
+        ReflectionTestUtils.setField(service, "bloomBits", 1 << 16);
+        ReflectionTestUtils.setField(service, "bloomHashes", 5);
+        service.init();
+    }
+
+    @Test
+    void rowCommittedAfterHigherIdIsPickedUp() {
+        Instant longAgo = Instant.now().minusSeconds(40);
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(0L))
+                .thenReturn(List.of(userRevocation(1, "first", Instant.now())));
+        service.syncFromDatabase();
+
+        // Row 2 was revoked well before row 3, but its transaction commits only after the next sync.
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(1L))
+                .thenReturn(List.of(userRevocation(3, "third", Instant.now())),
+                        List.of(userRevocation(2, "second", longAgo), userRevocation(3, "third", Instant.now())));
+        service.syncFromDatabase();
+        assertFalse(service.isRevoked(claims("second", longAgo.minusSeconds(1))));
+
+        service.syncFromDatabase();
+        assertTrue(service.isRevoked(claims("first", longAgo)));
+        assertTrue(service.isRevoked(claims("second", longAgo.minusSeconds(1))));
+        assertTrue(service.isRevoked(claims("third", longAgo)));
+    }
+
+    @Test
+    void syncMovesPastFilledGaps() {
+        when(revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(0L))
+                .thenReturn(List.of(userRevocation(2, "second", Instant.now())),
+                        List.of(userRevocation(1, "first", Instant.now()), userRevocation(2, "second", Instant.now())));
+        service.syncFromDatabase();
+        service.syncFromDatabase();
+        service.syncFromDatabase();
+
+        verify(revokedTokenRepository).findByIdGreaterThanOrderByIdAsc(2L);
+    }
+
+    @Test
+    void tokenIssuedInSameSecondAsRevocationIsRevoked() {
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        service.revokeUser("alice");
+        verify(revokedTokenRepository).save(saved.capture());
+        long revokedAtMs = saved.getValue().getRevokedAt().toEpochMilli();
+
+        // iat is truncated to whole seconds
+        Instant sameSecond = Instant.ofEpochSecond(revokedAtMs / 1000);
+        assertTrue(service.isRevoked(claims("alice", sameSecond)));
+        assertFalse(service.isRevoked(claims("alice", sameSecond.plusSeconds(1))));
+        assertFalse(service.isRevoked(claims("bob", sameSecond)));
+    }
+
+    @Test
+    void revokedTokenIdIsRevokedUntilPurged() {
+        Claims revoked = claims("alice", Instant.now());
+        revoked.setId("token-1");
+        revoked.setExpiration(Date.from(Instant.now().plusSeconds(60)));
+        Claims other = claims("alice", Instant.now());
+        other.setId("token-2");
+
+        service.revokeToken(revoked);
+
+        assertTrue(service.isRevoked(revoked));
+        assertFalse(service.isRevoked(other));
+    }
+
+    private static RevokedToken userRevocation(long id, String username, Instant revokedAt) {
+        RevokedToken revokedToken = new RevokedToken(null, username, revokedAt, revokedAt.plusMillis(JWT_EXPIRATION_MS));
+        revokedToken.setId(id);
+        return revokedToken;
+    }
+
+    private static Claims claims(String username, Instant issuedAt) {
+        return Jwts.claims().setSubject(username).setIssuedAt(Date.from(issuedAt));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.aquatac1.security.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bucket arithmetic with a hand-driven clock: 5 attempts per username, refilled at 5 per
+ * minute (one every 12 s), and 20 per IP at 20 per minute (one every 3 s).
+ */
+class LoginAttemptThrottleTest {
+    private static final long START = TimeUnit.DAYS.toNanos(1);
+
+    private LoginAttemptThrottle throttle;
+
+    @BeforeEach
+    void createThrottle() {
+        throttle = new LoginAttemptThrottle();
+        ReflectionTestUtils.setField(throttle, "usernameCapacity", 5);
+        ReflectionTestUtils.setField(throttle, "usernameRefillPerMinute", 5.0);
+        ReflectionTestUtils.setField(throttle, "ipCapacity", 20);
+        ReflectionTestUtils.setField(throttle, "ipRefillPerMinute", 20.0);
+        ReflectionTestUtils.setField(throttle, "maxEntries", 1000);
+        ReflectionTestUtils.setField(throttle, "idleEvictMs", 600000L);
+        throttle.init();
+    }
+
+    @Test
+    void usernameBucketIsExhaustedAfterCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("alice", "10.0.0." + i, START));
+        }
+
+        assertTrue(throttle.tryAcquire("Alice", "10.0.0.9", START) > 0);
+        assertEquals(0, throttle.tryAcquire("bob", "10.0.0.9", START));
+        assertEquals(1, throttle.getRejectedByUsernameCount());
+    }
+
+    @Test
+    void ipBucketIsExhaustedAcrossUsernames() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, throttle.tryAcquire("user" + i, "10.0.0.1", START));
+        }
+
+        assertTrue(throttle.tryAcquire("someone", "10.0.0.1", START) > 0);
+        assertEquals(0, throttle.tryAcquire("someone", "10.0.0.2", START));
+        assertEquals(1, throttle.getRejectedByIpCount());
+    }
+
+    @Test
+    void retryAfterIsTheWholeSecondsUntilNextToken() {
+        exhaust("alice");
+
+        assertEquals(12, throttle.tryAcquire("alice", "10.0.0.9", START));
+        assertEquals(8, throttle.tryAcquire("alice", "10.0.0.9", START + TimeUnit.MILLISECONDS.toNanos(4500)));
+        // Rounded up: 0.5 s left is announced as 1 s, never as 0.
+        assertEquals(1, throttle.tryAcquire("alice", "10.0.0.9", START + TimeUnit.MILLISECONDS.toNanos(11500)));
+    }
+
+    @Test
+    void bucketRefillsOverTime() {
+        exhaust("alice");
+
+        long oneTokenLater = START + TimeUnit.SECONDS.toNanos(12);
+        assertEquals(0, throttle.tryAcquire("alice", "10.0.0.9", oneTokenLater));
+        assertTrue(throttle.tryAcquire("alice", "10.0.0.9", oneTokenLater) > 0);
+
+        // A long pause refills up to the capacity, not beyond it.
+        long muchLater = START + TimeUnit.MINUTES.toNanos(10);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("alice", "10.0.1." + i, muchLater));
+        }
+        assertTrue(throttle.tryAcquire("alice", "10.0.1.9", muchLater) > 0);
+    }
+
+    @Test
+    void successfulSigninResetsUsernameButNotIp() {
+        exhaust("alice");
+        throttle.onSuccess("ALICE");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("alice", "10.0.2." + i, START));
+        }
+
+        for (int i = 0; i < 20; i++) {
+            throttle.tryAcquire("user" + i, "10.0.3.1", START);
+        }
+        throttle.onSuccess("user0");
+        assertTrue(throttle.tryAcquire("user0", "10.0.3.1", START) > 0);
+    }
+
+    // Five attempts from different addresses, so only the username bucket runs dry.
+    private void exhaust(String username) {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire(username, "10.0.0." + i, START));
+        }
+    }
+}
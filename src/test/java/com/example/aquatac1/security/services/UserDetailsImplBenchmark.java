@@ -0,0 +1,88 @@
+package com.example.aquatac1.security.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.aquatac1.dto.UserCredentialsView;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.model.Role;
+import com.example.aquatac1.model.User;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserDetailsImplBenchmark {
+    private User user;
+    private List<UserCredentialsView> rows;
+
+    @Setup
+    public void setUp() {
+        user = new User("benchmark", "benchmark@example.com", "$2a$10$abcdefghijklmnopqrstuv");
+        user.setId(42L);
+        user.setApproved(true);
+        user.setRoles(Set.of(new Role(ERole.ROLE_USER), new Role(ERole.ROLE_BUSINESS_OWNER)));
+
+        rows = new ArrayList<>();
+        for (Role role : user.getRoles()) {
+            rows.add(new Row(user, role.getName()));
+        }
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildFromEntity() {
+        return UserDetailsImpl.build(user);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildFromRows() {
+        return UserDetailsImpl.build(rows);
+    }
+
+    private record Row(User user, ERole role) implements UserCredentialsView {
+        @Override
+        public Long getId() {
+            return user.getId();
+        }
+
+        @Override
+        public String getUsername() {
+            return user.getUsername();
+        }
+
+        @Override
+        public String getEmail() {
+            return user.getEmail();
+        }
+
+        @Override
+        public String getPassword() {
+            return user.getPassword();
+        }
+
+        @Override
+        public Boolean getApproved() {
+            return user.isApproved();
+        }
+
+        @Override
+        public ERole getRole() {
+            return role;
+        }
+    }
+}
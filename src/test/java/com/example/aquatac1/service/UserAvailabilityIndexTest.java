@@ -0,0 +1,108 @@
+package com.example.aquatac1.service;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.aquatac1.dto.UserIdentityView;
+import com.example.aquatac1.repository.UserRepository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The filters may only answer "available" for names that are really free. The database
+ * stub says every name is taken, so a lookup that wrongly trusts the filter shows up as
+ * "available".
+ */
+class UserAvailabilityIndexTest {
+    private UserRepository userRepository;
+    private UserAvailabilityIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+        when(userRepository.existsByEmail(anyString())).thenReturn(true);
+
+        index = new UserAvailabilityIndex(mock(PlatformTransactionManager.class));
+        index.userRepository = userRepository;
+        ReflectionTestUtils.setField(index, "bloomBits", 1 << 16);
+        ReflectionTestUtils.setField(index, "bloomHashes", 5);
+        ReflectionTestUtils.setField(index, "replicaLagMs", 5000L);
+    }
+
+    @Test
+    void registeredNameIsTakenAfterRebuild() {
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(user("alice")));
+        index.rebuild();
+
+        assertFalse(index.isUsernameAvailable("Alice"));
+        assertFalse(index.isEmailAvailable("alice@example.com"));
+    }
+
+    @Test
+    void freeNameIsAnsweredWithoutQuery() {
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(user("alice")));
+        index.rebuild();
+
+        assertTrue(index.isUsernameAvailable("bob"));
+        verify(userRepository, never()).existsByUsername("bob");
+    }
+
+    @Test
+    void signupDuringRebuildSurvivesTheSwap() {
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(user("alice")));
+        index.rebuild();
+
+        when(userRepository.streamAllIdentities())
+                .thenReturn(Stream.of(user("alice")).peek(streamed -> index.add("late", "late@example.com")));
+        index.rebuild();
+
+        assertFalse(index.isUsernameAvailable("late"));
+        assertFalse(index.isEmailAvailable("late@example.com"));
+    }
+
+    @Test
+    void signupMissingFromLaggingSnapshotSurvivesTheSwap() {
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(user("alice")));
+        index.rebuild();
+        index.add("recent", "recent@example.com");
+
+        // Committed before the rebuild started, but not yet on the replica it streams from.
+        when(userRepository.streamAllIdentities()).thenReturn(Stream.of(user("alice")));
+        index.rebuild();
+
+        assertFalse(index.isUsernameAvailable("recent"));
+    }
+
+    @Test
+    void everyLookupGoesToDatabaseBeforeFirstBuild() {
+        index.add("early", "early@example.com");
+
+        assertFalse(index.isUsernameAvailable("someone"));
+        verify(userRepository).existsByUsername("someone");
+    }
+
+    private static UserIdentityView user(String name) {
+        return new UserIdentityView() {
+            @Override
+            public String getUsername() {
+                return name;
+            }
+
+            @Override
+            public String getEmail() {
+                return name + "@example.com";
+            }
+        };
+    }
+}
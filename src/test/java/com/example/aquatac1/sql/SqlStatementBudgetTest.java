@@ -0,0 +1,226 @@
+package com.example.aquatac1.sql;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.aquatac1.H2StreamingFetchSizeConfig;
+import com.example.aquatac1.contoller.AdminController;
+import com.example.aquatac1.contoller.AuthController;
+import com.example.aquatac1.dto.SignupRequest;
+import com.example.aquatac1.dto.UserInfoResponse;
+import com.example.aquatac1.model.ERole;
+import com.example.aquatac1.model.User;
+import com.example.aquatac1.repository.UserRepository;
+import com.example.aquatac1.security.services.BoundedPasswordEncoder;
+import com.example.aquatac1.security.services.RoleRegistry;
+import com.example.aquatac1.security.services.UserDetailsCache;
+import com.example.aquatac1.security.services.UserDetailsServiceImpl;
+import com.example.aquatac1.service.UserListVersion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Statement counts of the hot read paths. These must not grow with the number of users;
+ * a lazy per-user roles load would show up here as a repeated statement. The listing
+ * version is only polled when a test calls refresh(), so its stamp moves on cue.
+ */
+@SpringBootTest(properties = "app.userListVersionPollMs=3600000")
+@ActiveProfiles("h2")
+@Import(H2StreamingFetchSizeConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlStatementBudgetTest {
+    private static final int USERS = 25;
+
+    @Autowired
+    AdminController adminController;
+
+    @Autowired
+    UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    UserDetailsCache userDetailsCache;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    RoleRegistry roleRegistry;
+
+    @Autowired
+    UserListVersion userListVersion;
+
+    @Autowired
+    AuthController authController;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    BoundedPasswordEncoder passwordEncoder;
+
+    @BeforeAll
+    void createUsers() {
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("budget" + i, "budget" + i + "@example.com", "{noop}secret");
+            user.setApproved(i % 2 == 0);
+            user.setRoles(Set.of(roleRegistry.getRole(ERole.ROLE_USER), roleRegistry.getRole(ERole.ROLE_BUSINESS_OWNER)));
+            userRepository.save(user);
+        }
+    }
+
+    @BeforeEach
+    void signInAsAdmin() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+        SqlStatementTracker.end();
+    }
+
+    @Test
+    void allUsersIsOneStatement() {
+        SqlStatementTracker.begin();
+        adminController.getAllUsers(listingRequest(null));
+        SqlStatementStats stats = SqlStatementTracker.end();
+
+        assertEquals(1, stats.getStatementCount());
+        assertTrue(stats.getRepeatedStatements(2).isEmpty(), () -> "Repeated: " + stats.getRepeatedStatements(2));
+    }
+
+    @Test
+    void pendingApprovalsIsOneStatement() {
+        SqlStatementTracker.begin();
+        adminController.getPendingApprovals(listingRequest(null));
+        SqlStatementStats stats = SqlStatementTracker.end();
+
+        assertEquals(1, stats.getStatementCount());
+    }
+
+    @Test
+    void usersPageIsIdsThenRows() {
+        SqlStatementTracker.begin();
+        adminController.getUsersPage(0, 10, null, null, listingRequest(null));
+        SqlStatementStats stats = SqlStatementTracker.end();
+
+        assertEquals(2, stats.getStatementCount());
+        assertEquals(0, stats.getRepeatedStatements(2).size());
+    }
+
+    @Test
+    void unchangedListingIsNotModifiedWithoutStatements() {
+        ServletWebRequest first = listingRequest(null);
+        adminController.getAllUsers(first);
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        ServletWebRequest second = listingRequest(eTag);
+        SqlStatementTracker.begin();
+        ResponseEntity<List<UserInfoResponse>> response = adminController.getAllUsers(second);
+        assertEquals(0, SqlStatementTracker.end().getStatementCount());
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), second.getResponse().getStatus());
+
+        userListVersion.advance();
+        ServletWebRequest afterWrite = listingRequest(eTag);
+        assertEquals(HttpStatus.OK, adminController.getAllUsers(afterWrite).getStatusCode());
+        assertNotEquals(eTag, afterWrite.getResponse().getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void userLookupIsOneStatementThenCached() {
+        userDetailsCache.clear();
+
+        SqlStatementTracker.begin();
+        userDetailsService.loadUserByUsername("budget1");
+        assertEquals(1, SqlStatementTracker.end().getStatementCount());
+
+        SqlStatementTracker.begin();
+        userDetailsService.loadUserByUsername("budget1");
+        assertEquals(0, SqlStatementTracker.end().getStatementCount());
+    }
+
+    @Test
+    void listVersionIsBumpedOnceAfterCommit() {
+        String eTag = userListVersion.getETag();
+
+        SqlStatementTracker.begin();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // A bulk operation advances once per chunk.
+            userListVersion.advance();
+            userListVersion.advance();
+            userListVersion.advance();
+            assertEquals(0, SqlStatementTracker.current().countMatching("list_versions"));
+        });
+        // One upsert and one read, in their own transaction.
+        assertEquals(2, SqlStatementTracker.end().countMatching("list_versions"));
+        assertNotEquals(eTag, userListVersion.getETag());
+    }
+
+    @Test
+    void signupLeavesTheStampToThePoll() {
+        SignupRequest signup = signupRequest("budgetsignup");
+        String eTag = userListVersion.getETag();
+
+        SqlStatementTracker.begin();
+        assertEquals(HttpStatus.OK, authController.registerUser(signup).getStatusCode());
+        assertEquals(0, SqlStatementTracker.end().countMatching("list_versions"));
+        assertEquals(eTag, userListVersion.getETag());
+
+        userListVersion.refresh();
+        assertNotEquals(eTag, userListVersion.getETag());
+    }
+
+    @Test
+    void duplicateSignupIsRejectedBeforeHashing() {
+        assertEquals(HttpStatus.OK, authController.registerUser(signupRequest("budgetdupe")).getStatusCode());
+        long hashes = passwordEncoder.getHashCount();
+
+        SqlStatementTracker.begin();
+        ResponseEntity<?> duplicate = authController.registerUser(signupRequest("budgetdupe"));
+        assertEquals(1, SqlStatementTracker.end().getStatementCount());
+        assertEquals("Error: Username is already taken!", duplicate.getBody());
+        assertEquals(hashes, passwordEncoder.getHashCount());
+    }
+
+    private static SignupRequest signupRequest(String username) {
+        SignupRequest signup = new SignupRequest();
+        signup.setUsername(username);
+        signup.setEmail(username + "@example.com");
+        signup.setPassword("secret123");
+        return signup;
+    }
+
+    private static ServletWebRequest listingRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/admin/users");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
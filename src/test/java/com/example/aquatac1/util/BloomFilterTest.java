@@ -0,0 +1,77 @@
+package com.example.aquatac1.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    @Test
+    void addedValuesAreAlwaysContained() {
+        BloomFilter filter = new BloomFilter(1 << 16, 5);
+        for (int i = 0; i < 5000; i++) {
+            filter.add("user" + i);
+        }
+        for (int i = 0; i < 5000; i++) {
+            assertTrue(filter.mightContain("user" + i));
+        }
+    }
+
+    // 5000 values in 64 Kbit with 5 hashes: about 0.3% false positives.
+    @Test
+    void absentValuesAreMostlyRejected() {
+        BloomFilter filter = new BloomFilter(1 << 16, 5);
+        for (int i = 0; i < 5000; i++) {
+            filter.add("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 100, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void concurrentAddsAreAllKept() throws Exception {
+        BloomFilter filter = new BloomFilter(1 << 12, 3);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> adds = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                adds.add(executor.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        filter.add(thread + ":" + i);
+                    }
+                }));
+            }
+            for (Future<?> add : adds) {
+                add.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 2000; i++) {
+                assertTrue(filter.mightContain(t + ":" + i));
+            }
+        }
+    }
+
+    @Test
+    void tooSmallFilterIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(63, 5));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(1 << 10, 0));
+    }
+}